@@ -0,0 +1,55 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DateEntryParser} over the text of a typed date followed by the commit into the model,
+ * as on every keystroke in the entry field. Neither should allocate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateEntryBenchmark {
+
+    private static final String[] MONTH_NAMES = {
+            "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    @Param({"15/03/2024", "15032024", "15 mar 2024", "\u0661\u0665/\u0660\u0663/\u0662\u0660\u0662\u0664"})
+    public String text;
+
+    private final DateEntryParser parser = new DateEntryParser();
+
+    private DateSelectionModel model;
+
+    @Setup
+    public void setUp() {
+        model = new DateSelectionModel(Dates.of(1980, 0, 1));
+        model.setDateRange(Dates.of(1900, 0, 1), Dates.of(2100, 0, 1));
+        model.init(1980, 0, 1, true, true);
+        parser.setFields(new char[]{'d', 'M', 'y'}, true, true);
+        parser.setMonthNames(MONTH_NAMES);
+        parser.setPivotYear(1980);
+    }
+
+    @Benchmark
+    public int parse() {
+        return parser.parse(text, true);
+    }
+
+    @Benchmark
+    public int parseAndCommit() {
+        parser.parse(text, true);
+        model.enterDate(parser.getYear(), parser.getMonth(), parser.getDayOfMonth());
+        return model.takeDirty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DisabledDates} over the default builder range of 1900-01-01 to 2100-01-01 with
+ * weekends, yearly holidays, three thousand random blocked days and a blocked month: compiling
+ * the rules, and a day spinner tick through {@link DateSelectionModel} that skips them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DisabledDatesBenchmark {
+
+    private final int minDate = Dates.of(1900, 0, 1);
+
+    private final int maxDate = Dates.of(2100, 0, 1);
+
+    private DisabledDates disabledDates;
+
+    private DateSelectionModel model;
+
+    private boolean shortRange;
+
+    @Setup
+    public void setUp() {
+        disabledDates = new DisabledDates()
+                .daysOfWeek(Calendar.SATURDAY, Calendar.SUNDAY)
+                .yearly(0, 1)
+                .yearly(11, 25)
+                .range(1980, 5, 1, 1980, 5, 30);
+        Random random = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            disabledDates.date(1900 + random.nextInt(200), random.nextInt(12),
+                    1 + random.nextInt(28));
+        }
+        model = new DateSelectionModel(Dates.of(1980, 0, 2));
+        model.setDateRange(minDate, maxDate);
+        model.setDisabledDates(disabledDates);
+        model.init(1980, 0, 2, true, true);
+        model.takeDirty();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public DisabledDateIndex compile() {
+        // alternate between ranges that cover neither each other nor the range of the model,
+        // so that the cached index is never reused
+        shortRange = !shortRange;
+        return shortRange ? disabledDates.index(Dates.of(1899, 11, 31), Dates.of(2099, 11, 31))
+                : disabledDates.index(Dates.of(1900, 0, 2), Dates.of(2100, 0, 2));
+    }
+
+    @Benchmark
+    public int dayTick() {
+        int day = model.getDayOfMonth();
+        model.stepDay(day, day == model.getDaySpinnerMax() ? model.getDaySpinnerMin() : day + 1);
+        return model.takeDirty();
+    }
+}
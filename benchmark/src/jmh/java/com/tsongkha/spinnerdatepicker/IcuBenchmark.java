@@ -0,0 +1,28 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ICU#getDateFormatOrder(String)} over best patterns for "yyyyMMMdd" of a few locales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IcuBenchmark {
+
+    @Param({"MMM dd, yyyy", "dd MMM yyyy", "yyyy年M月dd日", "dd 'de' MMM 'de' yyyy"})
+    public String pattern;
+
+    @Benchmark
+    public char[] getDateFormatOrder() {
+        return ICU.getDateFormatOrder(pattern);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of the {@code SpinnerDatePicker.SavedState} payload.
+ *
+ * Parcel needs an Android runtime, so the fields are written and read back in the same order
+ * through a heap buffer, which like Parcel only copies primitives.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SavedStateBenchmark {
+
+    // SpinnerDatePicker.KNOWN_LEAP_YEAR, the View itself cannot be loaded here.
+    private static final int KNOWN_LEAP_YEAR = 2000;
+
+    private final ByteBuffer parcel = ByteBuffer.allocate(64);
+
+    private final int currentDate = Dates.of(1980, 0, 1);
+
+    private final int minDate = Dates.of(1900, 0, 1);
+
+    private final int maxDate = Dates.of(2100, 0, 1);
+
+    @Benchmark
+    public int roundTrip() {
+        parcel.clear();
+        parcel.putInt(currentDate);
+        parcel.putInt(minDate);
+        parcel.putInt(maxDate);
+        parcel.put((byte) 1);
+        parcel.put((byte) 1);
+        parcel.flip();
+        int restoredCurrentDate = parcel.getInt();
+        int restoredMinDate = parcel.getInt();
+        int restoredMaxDate = parcel.getInt();
+        boolean isDaySpinnerShown = parcel.get() != 0;
+        boolean isYearSpinnerShown = parcel.get() != 0;
+        if (!isYearSpinnerShown) {
+            restoredCurrentDate = Dates.withYear(restoredCurrentDate, KNOWN_LEAP_YEAR);
+        }
+        return Dates.clamp(restoredCurrentDate, restoredMinDate, restoredMaxDate)
+                + (isDaySpinnerShown ? 1 : 0);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link DateSelectionModel} transition run by the value change listener of
+ * {@link SpinnerDatePicker} for a tick of each spinner, including working out the spinner
+ * diffs, with the default builder range of 1900-01-01 to 2100-01-01. Each tick moves the
+ * spinner one item forward within the range the model last gave it, wrapping like the wheel.
+ * The spinners count in each of the shipped {@link CalendarSystem}s.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpinnerChangeBenchmark {
+
+    @Param({"GREGORIAN", "BUDDHIST", "JAPANESE", "SOLAR_HIJRI"})
+    public String calendar;
+
+    private DateSelectionModel model;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        model = new DateSelectionModel(Dates.of(1980, 0, 1));
+        model.setDateRange(Dates.of(1900, 0, 1), Dates.of(2100, 0, 1));
+        model.init(1980, 0, 1, true, true);
+        model.setCalendarSystem((CalendarSystem) CalendarSystem.class.getField(calendar).get(null));
+        model.takeDirty();
+    }
+
+    @Benchmark
+    public int dayTick() {
+        int day = model.getDayOfMonth();
+        model.stepDay(day, day == model.getDaySpinnerMax() ? model.getDaySpinnerMin() : day + 1);
+        return model.takeDirty();
+    }
+
+    @Benchmark
+    public int monthTick() {
+        int month = model.getMonth();
+        model.stepMonth(month,
+                month == model.getMonthSpinnerMax() ? model.getMonthSpinnerMin() : month + 1);
+        return model.takeDirty();
+    }
+
+    @Benchmark
+    public int yearTick() {
+        int year = model.getYear();
+        model.selectYear(year == model.getYearSpinnerMax() ? model.getYearSpinnerMin() : year + 1);
+        return model.takeDirty();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.DateFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The title formatting done by {@link SpinnerDatePickerDialog#onDateChanged} for every tick,
+ * minus the AlertDialog call itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TitleBenchmark {
+
+    private TitleCache titleCache;
+
+    private int dayOfMonth;
+
+    private int year;
+
+    @Setup
+    public void setUp() {
+        titleCache = new TitleCache(DateFormat.getDateInstance(DateFormat.LONG));
+        year = 1900;
+    }
+
+    /**
+     * Scrolling back and forth over the days of one month.
+     */
+    @Benchmark
+    public String scrollDays() {
+        dayOfMonth = dayOfMonth == 28 ? 1 : dayOfMonth + 1;
+        return titleCache.format(1980, 0, dayOfMonth);
+    }
+
+    /**
+     * Flinging through years, which misses the cache on every tick.
+     */
+    @Benchmark
+    public String flingYears() {
+        year = year == 2100 ? 1900 : year + 1;
+        return titleCache.format(year, 0, 1);
+    }
+}
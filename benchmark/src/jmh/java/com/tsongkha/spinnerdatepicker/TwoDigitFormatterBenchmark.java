@@ -0,0 +1,36 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TwoDigitFormatter#format(int)} as called by the day spinner for every visible item
+ * on every redraw.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TwoDigitFormatterBenchmark {
+
+    private TwoDigitFormatter formatter;
+
+    private int value;
+
+    @Setup
+    public void setUp() {
+        formatter = new TwoDigitFormatter();
+    }
+
+    @Benchmark
+    public String format() {
+        value = value == 31 ? 1 : value + 1;
+        return formatter.format(value);
+    }
+}
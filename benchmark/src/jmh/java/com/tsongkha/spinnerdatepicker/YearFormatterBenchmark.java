@@ -0,0 +1,55 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link YearFormatter#format(int)} over the default builder range of 1900 to 2100, as called
+ * by the year spinner for every visible item on every redraw, and over a range of 9999 BC to
+ * 9999 AD that is too wide for a table and goes through the window of recent labels instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class YearFormatterBenchmark {
+
+    private YearFormatter formatter;
+
+    private int year;
+
+    private YearFormatter wideFormatter;
+
+    private int wideYear;
+
+    @Setup
+    public void setUp() {
+        formatter = new YearFormatter(1900, 2100);
+        year = 1900;
+        wideFormatter = new YearFormatter(-9998, 9999);
+        wideYear = -9998;
+    }
+
+    @Benchmark
+    public String format() {
+        year = year == 2100 ? 1900 : year + 1;
+        return formatter.format(year);
+    }
+
+    /**
+     * Scrolls through the wide range one year at a time, three years drawn per step.
+     */
+    @Benchmark
+    public String formatWide() {
+        wideYear = wideYear == 9997 ? -9998 : wideYear + 1;
+        wideFormatter.format(wideFormatter.toValue(wideYear - 1));
+        wideFormatter.format(wideFormatter.toValue(wideYear + 1));
+        return wideFormatter.format(wideFormatter.toValue(wideYear));
+    }
+}
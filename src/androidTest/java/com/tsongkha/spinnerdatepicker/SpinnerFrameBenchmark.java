@@ -0,0 +1,91 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.NumberPicker;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares the cost of one frame of a year spinner drawn by {@link WheelPicker} and by
+ * {@link NumberPicker}, the value moving by one year per frame as in a fling.
+ *
+ * Run on a device with {@code gradle connectedCheck}; the time and allocations per frame of
+ * both are reported side by side.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpinnerFrameBenchmark {
+
+    private static final int MIN_YEAR = 1900;
+
+    private static final int MAX_YEAR = 2100;
+
+    @Rule
+    public final BenchmarkRule mBenchmarkRule = new BenchmarkRule();
+
+    @Test
+    @UiThreadTest
+    public void numberPickerFrame() {
+        measureFrames(new NumberPickerSpinner(
+                (NumberPicker) inflate(R.layout.number_picker_year)));
+    }
+
+    @Test
+    @UiThreadTest
+    public void wheelPickerFrame() {
+        measureFrames((WheelPicker) inflate(R.layout.wheel_picker_year));
+    }
+
+    private static View inflate(int layout) {
+        final Context context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                android.R.style.Theme_Material_Light);
+        return LayoutInflater.from(context).inflate(layout, new FrameLayout(context), false);
+    }
+
+    private void measureFrames(DateSpinner spinner) {
+        spinner.setMinValue(MIN_YEAR);
+        spinner.setMaxValue(MAX_YEAR);
+        spinner.setWrapSelectorWheel(false);
+        spinner.setFormatter(new YearFormatter(MIN_YEAR, MAX_YEAR));
+        spinner.setValue(MIN_YEAR);
+
+        final View view = spinner.getView();
+        final int width = view.getLayoutParams().width;
+        final int widthSpec = width > 0
+                ? View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY)
+                : View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        final int heightSpec = View.MeasureSpec.makeMeasureSpec(0,
+                View.MeasureSpec.UNSPECIFIED);
+        view.measure(widthSpec, heightSpec);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(view.getWidth(),
+                view.getHeight(), Bitmap.Config.ARGB_8888));
+
+        final BenchmarkState state = mBenchmarkRule.getState();
+        int year = MIN_YEAR;
+        while (state.keepRunning()) {
+            year = year < MAX_YEAR ? year + 1 : MIN_YEAR;
+            spinner.setValue(year);
+            if (view.isLayoutRequested()) {
+                // a NumberPicker relayouts its input for some values, which a frame pays for
+                view.measure(widthSpec, heightSpec);
+                view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            }
+            view.draw(canvas);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * The Gregorian calendar with the year moved on by 543, like {@code BuddhistCalendar}.
+ *
+ * The year is the top bits of a packed date, so converting to and from Gregorian is a single
+ * addition and every step is the arithmetic of {@link Dates} on the Gregorian date.
+ */
+final class BuddhistCalendarSystem extends CalendarSystem {
+
+    private static final int YEAR_OFFSET = 543;
+
+    private static final int PACKED_OFFSET = Dates.of(YEAR_OFFSET, 0, 0);
+
+    @Override
+    public int getMonthsInYear(int year) {
+        return Dates.MONTHS_PER_YEAR;
+    }
+
+    @Override
+    public int getDaysInMonth(int year, int month) {
+        return Dates.daysInMonth(year - YEAR_OFFSET, month);
+    }
+
+    @Override
+    public int toEpochDay(int year, int month, int dayOfMonth) {
+        return Dates.toEpochDay(year - YEAR_OFFSET, month, dayOfMonth);
+    }
+
+    @Override
+    public int fromEpochDay(int epochDay) {
+        return Dates.fromEpochDay(epochDay) + PACKED_OFFSET;
+    }
+
+    @Override
+    boolean labelsYearsWithDigits() {
+        return true;
+    }
+
+    @Override
+    int toGregorian(int date) {
+        return date - PACKED_OFFSET;
+    }
+
+    @Override
+    int fromGregorian(int gregorianDate) {
+        return gregorianDate + PACKED_OFFSET;
+    }
+
+    @Override
+    int plusDays(int date, int days) {
+        return Dates.plusDays(date - PACKED_OFFSET, days) + PACKED_OFFSET;
+    }
+
+    @Override
+    int plusMonths(int date, int months) {
+        return Dates.plusMonths(date - PACKED_OFFSET, months) + PACKED_OFFSET;
+    }
+
+    @Override
+    int withYear(int date, int year) {
+        return Dates.withYear(date - PACKED_OFFSET, year - YEAR_OFFSET) + PACKED_OFFSET;
+    }
+
+    @Override
+    int stepDay(int date, int oldVal, int newVal) {
+        return Dates.stepDay(date - PACKED_OFFSET, oldVal, newVal) + PACKED_OFFSET;
+    }
+
+    @Override
+    int stepMonth(int date, int oldVal, int newVal) {
+        return Dates.stepMonth(date - PACKED_OFFSET, oldVal, newVal) + PACKED_OFFSET;
+    }
+}
@@ -0,0 +1,161 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.util.Locale;
+
+/**
+ * The calendar the spinners of a {@link SpinnerDatePicker} count years, months and days in.
+ *
+ * Only the spinners use the calendar system. Dates given to the picker and reported by it
+ * stay Gregorian, like those of {@link java.util.Calendar}. The lookups below run on every
+ * spinner tick, so an implementation should answer them with arithmetic and precomputed
+ * tables rather than a {@link java.util.Calendar}. Months are zero based, and dates are
+ * packed with {@link #date(int, int, int)}.
+ */
+public abstract class CalendarSystem {
+
+    public static final CalendarSystem GREGORIAN = new GregorianCalendarSystem();
+
+    /**
+     * The Thai solar calendar, Gregorian with years counted from 543 BC.
+     */
+    public static final CalendarSystem BUDDHIST = new BuddhistCalendarSystem();
+
+    /**
+     * Gregorian with years counted by Japanese era from Meiji on.
+     */
+    public static final CalendarSystem JAPANESE = new JapaneseCalendarSystem();
+
+    /**
+     * The Solar Hijri calendar of Iran and Afghanistan.
+     */
+    public static final CalendarSystem SOLAR_HIJRI = new SolarHijriCalendarSystem();
+
+    protected CalendarSystem() {
+    }
+
+    public abstract int getMonthsInYear(int year);
+
+    public abstract int getDaysInMonth(int year, int month);
+
+    /**
+     * Days since 1970-01-01 of a valid date.
+     */
+    public abstract int toEpochDay(int year, int month, int dayOfMonth);
+
+    /**
+     * The date of a day since 1970-01-01, packed with {@link #date(int, int, int)}.
+     */
+    public abstract int fromEpochDay(int epochDay);
+
+    /**
+     * The number shown for a year, which restarts with every era in calendars that count
+     * years by era.
+     */
+    public int getYearOfEra(int year) {
+        return year;
+    }
+
+    /**
+     * Labels a year for the year spinner.
+     *
+     * @param yearOfEra {@link #getYearOfEra(int)} in the digits of the locale.
+     */
+    public String formatYear(int year, String yearOfEra, Locale locale) {
+        return yearOfEra;
+    }
+
+    /**
+     * The month names of a year with the most months, or null to use the locale's names of
+     * the Gregorian months.
+     */
+    public String[] getMonthNames(Locale locale) {
+        return null;
+    }
+
+    /**
+     * Packs a date for {@link #fromEpochDay(int)}.
+     */
+    protected static int date(int year, int month, int dayOfMonth) {
+        return Dates.of(year, month, dayOfMonth);
+    }
+
+    /**
+     * Whether {@link #formatYear(int, String, Locale)} labels positive years with nothing but
+     * their digits, so that the year spinner can share the tables of {@link DigitTables}.
+     */
+    boolean labelsYearsWithDigits() {
+        return false;
+    }
+
+    int toEpochDay(int date) {
+        return toEpochDay(Dates.year(date), Dates.month(date), Dates.day(date));
+    }
+
+    int toGregorian(int date) {
+        return Dates.fromEpochDay(toEpochDay(date));
+    }
+
+    int fromGregorian(int gregorianDate) {
+        return fromEpochDay(Dates.toEpochDay(gregorianDate));
+    }
+
+    int plusDays(int date, int days) {
+        final int dayOfMonth = Dates.day(date) + days;
+        if (dayOfMonth >= 1
+                && dayOfMonth <= getDaysInMonth(Dates.year(date), Dates.month(date))) {
+            return (date & ~0x1F) | dayOfMonth;
+        }
+        return fromEpochDay(toEpochDay(date) + days);
+    }
+
+    /**
+     * Adds months, pinning the day to the length of the resulting month.
+     */
+    int plusMonths(int date, int months) {
+        int year = Dates.year(date);
+        int month = Dates.month(date) + months;
+        while (month < 0) {
+            month += getMonthsInYear(--year);
+        }
+        int monthsInYear;
+        while (month >= (monthsInYear = getMonthsInYear(year))) {
+            month -= monthsInYear;
+            year++;
+        }
+        return Dates.of(year, month, Math.min(Dates.day(date), getDaysInMonth(year, month)));
+    }
+
+    /**
+     * Replaces the year, pinning the month and day to the new year.
+     */
+    int withYear(int date, int year) {
+        final int month = Math.min(Dates.month(date), getMonthsInYear(year) - 1);
+        return Dates.of(year, month, Math.min(Dates.day(date), getDaysInMonth(year, month)));
+    }
+
+    /**
+     * Applies a day spinner change, see {@link Dates#stepDay(int, int, int)}.
+     */
+    int stepDay(int date, int oldVal, int newVal) {
+        final int maxDayOfMonth = getDaysInMonth(Dates.year(date), Dates.month(date));
+        if (oldVal == maxDayOfMonth && newVal == 1) {
+            return plusDays(date, 1);
+        } else if (oldVal == 1 && newVal == maxDayOfMonth) {
+            return plusDays(date, -1);
+        }
+        return plusDays(date, newVal - oldVal);
+    }
+
+    /**
+     * Applies a month spinner change, see {@link Dates#stepMonth(int, int, int)}.
+     */
+    int stepMonth(int date, int oldVal, int newVal) {
+        final int lastMonth = getMonthsInYear(Dates.year(date)) - 1;
+        if (oldVal == lastMonth && newVal == 0) {
+            return plusMonths(date, 1);
+        } else if (oldVal == 0 && newVal == lastMonth) {
+            return plusMonths(date, -1);
+        }
+        return plusMonths(date, newVal - oldVal);
+    }
+}
@@ -0,0 +1,336 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * Parses a whole date typed into one field, one character at a time and without allocating.
+ *
+ * The fields come in the order of {@link LocaleData#order}, leaving out hidden spinners.
+ * Days and years are digits of any script, see {@link Character#digit(char, int)}, and a
+ * month is either its number or a prefix of its name long enough to tell it apart. Anything
+ * that is neither a digit nor a letter separates fields, and a numeric field also ends once
+ * it has as many digits as it can hold, so "15032024" parses like "15/03/2024".
+ *
+ * Values are in the calendar the spinners count in. Whether they make a real date is left
+ * to {@link DateSelectionModel#enterDate(int, int, int)}.
+ */
+final class DateEntryParser {
+
+    /**
+     * More fields are expected.
+     */
+    static final int PARSING = 0;
+
+    /**
+     * Every field has been read.
+     */
+    static final int COMPLETE = 1;
+
+    /**
+     * The text cannot be a date.
+     */
+    static final int INVALID = 2;
+
+    private final char[] mFields = new char[3];
+
+    private int mFieldCount;
+
+    private MonthNameTrie mMonthNames;
+
+    private int mPivotYear;
+
+    private int mState;
+
+    private int mField;
+
+    private int mValue;
+
+    private int mDigits;
+
+    private int mNode;
+
+    private int mYear;
+
+    private int mMonth;
+
+    private int mDay;
+
+    /**
+     * Sets the fields to expect.
+     *
+     * @param order The order of all three fields, see {@link ICU#getDateFormatOrder(String)}.
+     */
+    void setFields(char[] order, boolean isDayShown, boolean isYearShown) {
+        mFieldCount = 0;
+        for (char field : order) {
+            if ((field != 'd' || isDayShown) && (field != 'y' || isYearShown)) {
+                mFields[mFieldCount++] = field;
+            }
+        }
+    }
+
+    /**
+     * Sets the month names to match, which are only indexed again when they change.
+     */
+    void setMonthNames(String[] monthNames) {
+        if (mMonthNames == null || mMonthNames.names != monthNames) {
+            mMonthNames = new MonthNameTrie(monthNames);
+        }
+    }
+
+    /**
+     * Sets the year a year typed with one or two digits is taken to be within 50 years of.
+     */
+    void setPivotYear(int year) {
+        mPivotYear = year;
+    }
+
+    /**
+     * Starts over, with the fields, month names and pivot year kept.
+     */
+    void reset() {
+        mState = mFieldCount > 0 ? PARSING : INVALID;
+        mField = 0;
+        mValue = 0;
+        mDigits = 0;
+        mNode = MonthNameTrie.ROOT;
+        mYear = 0;
+        mMonth = 0;
+        mDay = 1;
+    }
+
+    /**
+     * Parses a whole text.
+     *
+     * @param isFinished Whether to end the last field even if more could be typed into it,
+     *                   as when the user is done rather than still typing.
+     * @return The state, {@link #COMPLETE} if the text holds every field.
+     */
+    int parse(CharSequence text, boolean isFinished) {
+        reset();
+        for (int i = 0, length = text.length(); i < length && mState != INVALID; i++) {
+            accept(text.charAt(i));
+        }
+        return isFinished ? finish() : mState;
+    }
+
+    /**
+     * Reads the next character.
+     *
+     * @return The state after it. A field that could take more input stays open until a
+     * separator or {@link #finish()}.
+     */
+    int accept(char c) {
+        if (mState == INVALID) {
+            return mState;
+        }
+        final int digit = Character.digit(c, 10);
+        final boolean isLetter = digit < 0 && Character.isLetter(c);
+        if (mState == COMPLETE) {
+            if (digit >= 0 || isLetter) {
+                mState = INVALID;
+            }
+            return mState;
+        }
+        final char field = mFields[mField];
+        if (digit >= 0) {
+            if (mNode != MonthNameTrie.ROOT) {
+                mState = INVALID;
+                return mState;
+            }
+            mValue = mValue * 10 + digit;
+            if (++mDigits == maxDigits(field)) {
+                endField();
+            }
+        } else if (isLetter) {
+            final int node = field == 'M' && mDigits == 0
+                    ? mMonthNames.child(mNode, Character.toLowerCase(c)) : MonthNameTrie.NONE;
+            if (node == MonthNameTrie.NONE) {
+                mState = INVALID;
+                return mState;
+            }
+            mNode = node;
+            if (mMonthNames.isLeaf(node)) {
+                // nothing longer can be typed for this month
+                endField();
+            }
+        } else if (mDigits > 0 || mNode != MonthNameTrie.ROOT) {
+            endField();
+        }
+        return mState;
+    }
+
+    /**
+     * Ends the field being typed, if any of it was.
+     *
+     * @return The state.
+     */
+    int finish() {
+        if (mState == PARSING && (mDigits > 0 || mNode != MonthNameTrie.ROOT)) {
+            endField();
+        }
+        return mState;
+    }
+
+    /**
+     * The year, only set if the year field is shown.
+     */
+    int getYear() {
+        return mYear;
+    }
+
+    /**
+     * The month (0-11).
+     */
+    int getMonth() {
+        return mMonth;
+    }
+
+    /**
+     * The day of the month, 1 if the day field is hidden.
+     */
+    int getDayOfMonth() {
+        return mDay;
+    }
+
+    private void endField() {
+        switch (mFields[mField]) {
+            case 'd':
+                mDay = mValue;
+                break;
+            case 'M':
+                mMonth = mNode != MonthNameTrie.ROOT ? mMonthNames.month(mNode) : mValue - 1;
+                break;
+            case 'y':
+                mYear = mDigits <= 2 ? expandYear(mValue) : mValue;
+                break;
+            default:
+                throw new IllegalStateException();
+        }
+        mValue = 0;
+        mDigits = 0;
+        mNode = MonthNameTrie.ROOT;
+        if (mMonth < 0 || mDay < 1) {
+            mState = INVALID;
+        } else if (++mField == mFieldCount) {
+            mState = COMPLETE;
+        }
+    }
+
+    private int expandYear(int twoDigits) {
+        int year = mPivotYear - mPivotYear % 100 + twoDigits;
+        if (year > mPivotYear + 50) {
+            year -= 100;
+        } else if (year <= mPivotYear - 50) {
+            year += 100;
+        }
+        return year;
+    }
+
+    private static int maxDigits(char field) {
+        return field == 'y' ? 4 : 2;
+    }
+
+    /**
+     * The lower cased month names as a trie of one node per distinct prefix, with the month
+     * each prefix stands for.
+     */
+    static final class MonthNameTrie {
+
+        static final int ROOT = 0;
+
+        static final int NONE = -1;
+
+        private static final int AMBIGUOUS = -2;
+
+        final String[] names;
+
+        private final char[] mChars;
+
+        private final int[] mFirstChild;
+
+        private final int[] mNextSibling;
+
+        /**
+         * The month whose name starts with a prefix, or AMBIGUOUS if more than one does.
+         */
+        private final int[] mMonth;
+
+        /**
+         * The month whose whole name a prefix is, or NONE.
+         */
+        private final int[] mExactMonth;
+
+        private int mSize = 1;
+
+        MonthNameTrie(String[] names) {
+            this.names = names;
+            int capacity = 1;
+            for (String name : names) {
+                capacity += name.length();
+            }
+            mChars = new char[capacity];
+            mFirstChild = new int[capacity];
+            mNextSibling = new int[capacity];
+            mMonth = new int[capacity];
+            mExactMonth = new int[capacity];
+            mFirstChild[ROOT] = NONE;
+            mMonth[ROOT] = AMBIGUOUS;
+            mExactMonth[ROOT] = NONE;
+            for (int month = 0; month < names.length; month++) {
+                final String name = names[month];
+                int node = ROOT;
+                for (int i = 0; i < name.length(); i++) {
+                    final char c = Character.toLowerCase(name.charAt(i));
+                    if (Character.isLetter(c)) {
+                        // separators in names such as "janv." are never matched
+                        node = addChild(node, c, month);
+                    }
+                }
+                if (node != ROOT) {
+                    mExactMonth[node] = month;
+                }
+            }
+        }
+
+        /**
+         * The node after a lower cased letter, or NONE if no name goes on with it.
+         */
+        int child(int node, char c) {
+            for (int child = mFirstChild[node]; child != NONE; child = mNextSibling[child]) {
+                if (mChars[child] == c) {
+                    return child;
+                }
+            }
+            return NONE;
+        }
+
+        boolean isLeaf(int node) {
+            return mFirstChild[node] == NONE && mMonth[node] >= 0;
+        }
+
+        /**
+         * The month a typed prefix stands for, or NONE if it could be more than one.
+         */
+        int month(int node) {
+            if (mExactMonth[node] != NONE) {
+                return mExactMonth[node];
+            }
+            return mMonth[node] >= 0 ? mMonth[node] : NONE;
+        }
+
+        private int addChild(int node, char c, int month) {
+            int child = child(node, c);
+            if (child == NONE) {
+                child = mSize++;
+                mChars[child] = c;
+                mFirstChild[child] = NONE;
+                mNextSibling[child] = mFirstChild[node];
+                mFirstChild[node] = child;
+                mMonth[child] = month;
+                mExactMonth[child] = NONE;
+            } else if (mMonth[child] != month) {
+                mMonth[child] = AMBIGUOUS;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * Lays out the spinners of a {@link SpinnerDatePicker} side by side in the order they were
+ * added, mirrored for right-to-left layouts, under an optional header, in one pass. It
+ * replaces the two nested LinearLayouts the picker used to inflate.
+ *
+ * The spinners have fixed sizes, so a new value or range never changes the size of this
+ * layout. Once it has been measured, the layouts a spinner requests for such changes are
+ * served on the next frame by measuring and laying out this layout alone, rather than
+ * remeasuring the whole window. A local pass that does change the size falls back to a full
+ * one. {@link #invalidateMeasurement()} marks the measured size stale when the shown spinners
+ * or the locale change, so that the next request goes to the window right away.
+ */
+final class DatePickerLayout extends ViewGroup {
+
+    private final int mMinWidth;
+
+    private final Runnable mRelayout = this::relayout;
+
+    private View mHeader;
+
+    private int mRowWidth;
+
+    private int mWidthMeasureSpec;
+
+    private int mHeightMeasureSpec;
+
+    private boolean mIsMeasurementValid;
+
+    private boolean mIsRelayoutPending;
+
+    DatePickerLayout(Context context) {
+        super(context);
+        mMinWidth = getResources().getDimensionPixelSize(R.dimen.date_picker_min_width);
+    }
+
+    /**
+     * Shows a view across the full width above the spinners.
+     */
+    void setHeader(View header) {
+        if (mHeader != null) {
+            removeView(mHeader);
+        }
+        mHeader = header;
+        addView(header, 0, new MarginLayoutParams(LayoutParams.MATCH_PARENT,
+                LayoutParams.WRAP_CONTENT));
+    }
+
+    /**
+     * Removes every view but the header.
+     */
+    void removeSpinners() {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            if (getChildAt(i) != mHeader) {
+                removeViewAt(i);
+            }
+        }
+    }
+
+    /**
+     * Makes the next layout request remeasure the window, for changes that may resize this
+     * layout.
+     */
+    void invalidateMeasurement() {
+        mIsMeasurementValid = false;
+        requestLayout();
+    }
+
+    @Override
+    public void requestLayout() {
+        if (mIsMeasurementValid && !isLayoutRequested() && !isInLayout()
+                && isAttachedToWindow()) {
+            if (!mIsRelayoutPending) {
+                mIsRelayoutPending = true;
+                postOnAnimation(mRelayout);
+            }
+            return;
+        }
+        super.requestLayout();
+    }
+
+    private void relayout() {
+        mIsRelayoutPending = false;
+        if (isLayoutRequested()) {
+            // a full pass is on its way
+            return;
+        }
+        if (!mIsMeasurementValid) {
+            super.requestLayout();
+            return;
+        }
+        final int width = getWidth();
+        final int height = getHeight();
+        forceLayout();
+        measure(mWidthMeasureSpec, mHeightMeasureSpec);
+        if (getMeasuredWidth() != width || getMeasuredHeight() != height) {
+            mIsMeasurementValid = false;
+            super.requestLayout();
+            return;
+        }
+        layout(getLeft(), getTop(), getRight(), getBottom());
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        final int verticalPadding = getPaddingTop() + getPaddingBottom();
+        int rowWidth = 0;
+        int rowHeight = 0;
+        for (int i = 0, count = getChildCount(); i < count; i++) {
+            final View child = getChildAt(i);
+            if (child == mHeader || child.getVisibility() == GONE) {
+                continue;
+            }
+            measureChildWithMargins(child, widthMeasureSpec, 0, heightMeasureSpec, 0);
+            final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+            rowWidth += child.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+            rowHeight = Math.max(rowHeight,
+                    child.getMeasuredHeight() + lp.topMargin + lp.bottomMargin);
+        }
+        final int width = resolveSize(Math.max(mMinWidth, rowWidth) + horizontalPadding,
+                widthMeasureSpec);
+        int headerHeight = 0;
+        if (mHeader != null && mHeader.getVisibility() != GONE) {
+            final MarginLayoutParams lp = (MarginLayoutParams) mHeader.getLayoutParams();
+            final int horizontalMargins = lp.leftMargin + lp.rightMargin;
+            mHeader.measure(MeasureSpec.makeMeasureSpec(
+                    Math.max(0, width - horizontalPadding - horizontalMargins),
+                    MeasureSpec.EXACTLY),
+                    getChildMeasureSpec(heightMeasureSpec,
+                            verticalPadding + lp.topMargin + lp.bottomMargin, lp.height));
+            headerHeight = mHeader.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+        }
+        setMeasuredDimension(width,
+                resolveSize(headerHeight + rowHeight + verticalPadding, heightMeasureSpec));
+        mRowWidth = rowWidth;
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
+        mIsMeasurementValid = true;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        int top = getPaddingTop();
+        if (mHeader != null && mHeader.getVisibility() != GONE) {
+            final MarginLayoutParams lp = (MarginLayoutParams) mHeader.getLayoutParams();
+            final int left = getPaddingLeft() + lp.leftMargin;
+            mHeader.layout(left, top + lp.topMargin, left + mHeader.getMeasuredWidth(),
+                    top + lp.topMargin + mHeader.getMeasuredHeight());
+            top += mHeader.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+        }
+
+        // the row is centered
+        final int innerWidth = r - l - getPaddingLeft() - getPaddingRight();
+        int left = getPaddingLeft() + (innerWidth - mRowWidth) / 2;
+        final boolean isRtl = getLayoutDirection() == LAYOUT_DIRECTION_RTL;
+        final int count = getChildCount();
+        for (int i = 0; i < count; i++) {
+            final View child = getChildAt(isRtl ? count - 1 - i : i);
+            if (child == mHeader || child.getVisibility() == GONE) {
+                continue;
+            }
+            final MarginLayoutParams lp = (MarginLayoutParams) child.getLayoutParams();
+            left += lp.leftMargin;
+            child.layout(left, top + lp.topMargin, left + child.getMeasuredWidth(),
+                    top + lp.topMargin + child.getMeasuredHeight());
+            left += child.getMeasuredWidth() + lp.rightMargin;
+        }
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        invalidateMeasurement();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        invalidateMeasurement();
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // the font scale or density may have changed
+        invalidateMeasurement();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(mRelayout);
+        mIsRelayoutPending = false;
+        // the next parent may measure it differently
+        mIsMeasurementValid = false;
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public boolean shouldDelayChildPressedState() {
+        return false;
+    }
+
+    @Override
+    public LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new MarginLayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected LayoutParams generateDefaultLayoutParams() {
+        return new MarginLayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected LayoutParams generateLayoutParams(LayoutParams p) {
+        return p instanceof MarginLayoutParams ? new MarginLayoutParams((MarginLayoutParams) p)
+                : new MarginLayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(LayoutParams p) {
+        return p instanceof MarginLayoutParams;
+    }
+}
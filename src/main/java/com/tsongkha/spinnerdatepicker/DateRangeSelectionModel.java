@@ -0,0 +1,75 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * Ties the {@link DateSelectionModel}s of a start and an end date together, so that the end
+ * stays within a minimum and maximum number of days after the start.
+ *
+ * The start picks from the whole range, less the minimum span. Moving it only narrows the
+ * range of the end, through {@link DateSelectionModel#setDateRange(int, int)}, which does
+ * nothing when the span window is unchanged and otherwise only marks the end fields whose
+ * bounds actually moved. Moving the end never touches the start.
+ */
+final class DateRangeSelectionModel {
+
+    /**
+     * No maximum span, the end can go up to the max date.
+     */
+    static final int NO_MAX_SPAN = Integer.MAX_VALUE;
+
+    private final DateSelectionModel mStart;
+
+    private final DateSelectionModel mEnd;
+
+    private int mMaxDate;
+
+    private int mMinSpanDays;
+
+    private int mMaxSpanDays = NO_MAX_SPAN;
+
+    DateRangeSelectionModel(DateSelectionModel start, DateSelectionModel end) {
+        mStart = start;
+        mEnd = end;
+    }
+
+    /**
+     * Sets the range both dates are picked from and the number of days the end is after the
+     * start, then brings the end in line with the start.
+     */
+    void setBounds(int minDate, int maxDate, int minSpanDays, int maxSpanDays) {
+        mMaxDate = maxDate;
+        mMinSpanDays = minSpanDays;
+        mMaxSpanDays = maxSpanDays;
+        // widen both first, so that they share one index of the disabled dates over the range
+        mStart.setDateRange(minDate, maxDate);
+        mEnd.setDateRange(minDate, maxDate);
+        mStart.setDateRange(minDate, Dates.plusDays(maxDate, -minSpanDays));
+        onStartChanged();
+    }
+
+    /**
+     * Moves the end into the span window of the start. Call after the start changed.
+     */
+    void onStartChanged() {
+        final int startDay = Dates.toEpochDay(mStart.getDate());
+        final int maxDay = Dates.toEpochDay(mMaxDate);
+        final int endMin = Dates.fromEpochDay(Math.min(maxDay, startDay + mMinSpanDays));
+        final int endMax = (long) startDay + mMaxSpanDays >= maxDay ? mMaxDate
+                : Dates.fromEpochDay(startDay + mMaxSpanDays);
+        mEnd.setDateRange(endMin, endMax);
+    }
+
+    /**
+     * Checks that a range can hold a span of at least {@code minSpanDays} days.
+     */
+    static boolean fits(int minDate, int maxDate, int minSpanDays) {
+        return (long) Dates.toEpochDay(maxDate) - Dates.toEpochDay(minDate) >= minSpanDays;
+    }
+
+    DateSelectionModel getStart() {
+        return mStart;
+    }
+
+    DateSelectionModel getEnd() {
+        return mEnd;
+    }
+}
@@ -0,0 +1,582 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * The selection state of a date picker and its transitions, independent of any View.
+ *
+ * The model owns the current, min and max dates, packed as described in {@link Dates}, along
+ * with the wrap rules of the day and month spinners, the clamping to the date range, the
+ * skipping of {@link DisabledDates} and the year-less mode, in which dates live in
+ * {@link #KNOWN_LEAP_YEAR}. After every transition it works out the range and value each of
+ * the day, month and year spinners should show, and records which of those changed in a
+ * dirty mask. A renderer takes the mask with {@link #takeDirty()} and only touches the
+ * spinners behind the bits that are set.
+ *
+ * The spinners count in a {@link CalendarSystem}, Gregorian while the year is hidden, and
+ * the model keeps its dates packed in that calendar. Dates going in and out through
+ * {@link #getDate()}, {@link #setDateRange(int, int)} and the like are Gregorian, while
+ * {@link #getYear()}, {@link #getMonth()}, {@link #getDayOfMonth()} and the spinner ranges
+ * are in the calendar of the spinners.
+ *
+ * Not thread safe.
+ */
+final class DateSelectionModel {
+
+    /**
+     * The year of the dates selected while the year spinner is hidden, a leap year so that
+     * February 29th can be picked.
+     */
+    static final int KNOWN_LEAP_YEAR = 2000;
+
+    /**
+     * The selected date changed.
+     */
+    static final int DIRTY_DATE = 1;
+
+    /**
+     * Whether the day or year spinner is shown changed.
+     */
+    static final int DIRTY_VISIBILITY = 1 << 1;
+
+    static final int DIRTY_DAY_RANGE = 1 << 2;
+
+    static final int DIRTY_DAY_VALUE = 1 << 3;
+
+    static final int DIRTY_MONTH_RANGE = 1 << 4;
+
+    static final int DIRTY_MONTH_VALUE = 1 << 5;
+
+    static final int DIRTY_YEAR_RANGE = 1 << 6;
+
+    static final int DIRTY_YEAR_VALUE = 1 << 7;
+
+    static final int DIRTY_ALL = (1 << 8) - 1;
+
+    private CalendarSystem mCalendar = CalendarSystem.GREGORIAN;
+
+    private CalendarSystem mSpinnerCalendar = CalendarSystem.GREGORIAN;
+
+    private int mGregorianMinDate;
+
+    private int mGregorianMaxDate;
+
+    private int mMinDate;
+
+    private int mMaxDate;
+
+    private int mCurrentDate;
+
+    private DisabledDates mDisabledDates;
+
+    private DisabledDateIndex mDisabledIndex;
+
+    private boolean mIsDayShown = true;
+
+    private boolean mIsYearShown = true;
+
+    private int mDayMin;
+
+    private int mDayMax;
+
+    private boolean mIsDayWrapped;
+
+    private int mMonthMin;
+
+    private int mMonthMax;
+
+    private boolean mIsMonthWrapped;
+
+    private int mYearMin;
+
+    private int mYearMax;
+
+    private int mYear;
+
+    private int mMonth;
+
+    private int mDay;
+
+    private int mDirty = DIRTY_ALL;
+
+    /**
+     * Creates a model with a single selectable date.
+     */
+    DateSelectionModel(int date) {
+        mCurrentDate = date;
+        mGregorianMinDate = date;
+        mGregorianMaxDate = date;
+        mMinDate = date;
+        mMaxDate = date;
+        updateSpinners();
+        mDirty = DIRTY_ALL;
+    }
+
+    /**
+     * Shows or hides the day and year spinners and selects a date, clamped to the range.
+     */
+    void init(int year, int monthOfYear, int dayOfMonth, boolean isDayShown, boolean isYearShown) {
+        setFieldsShown(isDayShown, isYearShown);
+        setDate(year, monthOfYear, dayOfMonth);
+        updateSpinners();
+    }
+
+    /**
+     * Shows or hides the day and year spinners and selects a day of {@link #KNOWN_LEAP_YEAR}.
+     */
+    void init(int monthOfYear, int dayOfMonth, boolean isDayShown, boolean isYearShown) {
+        setFieldsShown(isDayShown, isYearShown);
+        setDate(monthOfYear, dayOfMonth);
+        updateSpinners();
+    }
+
+    /**
+     * Selects a date, clamped to the range.
+     *
+     * @return Whether the given date differs from the selected one.
+     */
+    boolean updateDate(int year, int month, int dayOfMonth) {
+        if (getDate() == Dates.of(year, month, dayOfMonth)) {
+            return false;
+        }
+        setDate(year, month, dayOfMonth);
+        updateSpinners();
+        return true;
+    }
+
+    /**
+     * Selects a day of {@link #KNOWN_LEAP_YEAR}.
+     *
+     * @return Whether the given day differs from the selected one.
+     */
+    boolean updateDate(int month, int dayOfMonth) {
+        final int date = getDate();
+        if (Dates.month(date) == month && Dates.day(date) == dayOfMonth) {
+            return false;
+        }
+        setDate(month, dayOfMonth);
+        updateSpinners();
+        return true;
+    }
+
+    /**
+     * Selects a date typed in the fields the spinners show, in the calendar they count in and
+     * clamped to the range. The day is kept while the day spinner is hidden.
+     *
+     * @return Whether the fields make a date.
+     */
+    boolean enterDate(int year, int month, int dayOfMonth) {
+        final CalendarSystem calendar = mSpinnerCalendar;
+        if (!mIsYearShown) {
+            year = KNOWN_LEAP_YEAR;
+        }
+        if (month < 0 || month >= calendar.getMonthsInYear(year)) {
+            return false;
+        }
+        final int daysInMonth = calendar.getDaysInMonth(year, month);
+        if (!mIsDayShown) {
+            dayOfMonth = Math.min(Dates.day(mCurrentDate), daysInMonth);
+        } else if (dayOfMonth < 1 || dayOfMonth > daysInMonth) {
+            return false;
+        }
+        selectFromSpinner(Dates.of(year, month, dayOfMonth));
+        return true;
+    }
+
+    /**
+     * Applies a day spinner change, treating a jump between the last day of the month and
+     * the first as the wheel wrapping into the next or previous month.
+     */
+    void stepDay(int oldVal, int newVal) {
+        selectFromSpinner(mSpinnerCalendar.stepDay(spinnerDate(), oldVal, newVal));
+    }
+
+    /**
+     * Applies a month spinner change, treating a jump between the last month and the first
+     * as the wheel wrapping into the next or previous year.
+     */
+    void stepMonth(int oldVal, int newVal) {
+        selectFromSpinner(mSpinnerCalendar.stepMonth(spinnerDate(), oldVal, newVal));
+    }
+
+    /**
+     * Applies a year spinner change.
+     */
+    void selectYear(int year) {
+        selectFromSpinner(mSpinnerCalendar.withYear(spinnerDate(), year));
+    }
+
+    void setMinDate(int date) {
+        if (date == mGregorianMinDate) {
+            // Same day, no-op.
+            return;
+        }
+        mGregorianMinDate = date;
+        mMinDate = mSpinnerCalendar.fromGregorian(date);
+        updateDisabledIndex();
+        if (mCurrentDate < mMinDate) {
+            mCurrentDate = skipDisabled(mMinDate, true);
+        }
+        updateSpinners();
+    }
+
+    void setMaxDate(int date) {
+        if (date == mGregorianMaxDate) {
+            // Same day, no-op.
+            return;
+        }
+        mGregorianMaxDate = date;
+        mMaxDate = mSpinnerCalendar.fromGregorian(date);
+        updateDisabledIndex();
+        if (mCurrentDate > mMaxDate) {
+            mCurrentDate = skipDisabled(mMaxDate, false);
+        }
+        updateSpinners();
+    }
+
+    /**
+     * Sets both ends of the date range with a single update, so a range that moves past the
+     * current one is never inverted in between.
+     */
+    void setDateRange(int minDate, int maxDate) {
+        if (minDate == mGregorianMinDate && maxDate == mGregorianMaxDate) {
+            // Same days, no-op.
+            return;
+        }
+        mGregorianMinDate = minDate;
+        mGregorianMaxDate = maxDate;
+        mMinDate = mSpinnerCalendar.fromGregorian(minDate);
+        mMaxDate = mSpinnerCalendar.fromGregorian(maxDate);
+        updateDisabledIndex();
+        setDate(mCurrentDate);
+        updateSpinners();
+    }
+
+    /**
+     * Sets the dates that cannot be selected while the year is shown, moving the selection
+     * off a date that becomes disabled.
+     */
+    void setDisabledDates(DisabledDates disabledDates) {
+        if (disabledDates == mDisabledDates) {
+            return;
+        }
+        if (disabledDates != null) {
+            // the index is only compiled again when the range grows
+            disabledDates.freeze();
+        }
+        mDisabledDates = disabledDates;
+        mDisabledIndex = null;
+        updateDisabledIndex();
+        if (mIsYearShown) {
+            mCurrentDate = skipDisabled(mCurrentDate, true);
+        }
+        updateSpinners();
+    }
+
+    /**
+     * Sets the calendar the spinners count in while the year is shown, keeping the date.
+     */
+    void setCalendarSystem(CalendarSystem calendar) {
+        if (calendar == mCalendar) {
+            return;
+        }
+        mCalendar = calendar;
+        updateSpinnerCalendar();
+        updateSpinners();
+    }
+
+    /**
+     * Puts back a saved selection as is.
+     */
+    void restore(int currentDate,
+                 int minDate,
+                 int maxDate,
+                 boolean isDayShown,
+                 boolean isYearShown) {
+        setFieldsShown(isDayShown, isYearShown);
+        mCurrentDate = mSpinnerCalendar.fromGregorian(
+                isYearShown ? currentDate : Dates.withYear(currentDate, KNOWN_LEAP_YEAR));
+        mGregorianMinDate = minDate;
+        mGregorianMaxDate = maxDate;
+        mMinDate = mSpinnerCalendar.fromGregorian(minDate);
+        mMaxDate = mSpinnerCalendar.fromGregorian(maxDate);
+        updateDisabledIndex();
+        updateSpinners();
+    }
+
+    /**
+     * Marks everything dirty, for a renderer whose spinners were reset or relabelled.
+     */
+    void invalidate() {
+        mDirty = DIRTY_ALL;
+    }
+
+    /**
+     * Gets the changes since the last call as a combination of the {@code DIRTY_} bits, and
+     * clears them.
+     */
+    int takeDirty() {
+        final int dirty = mDirty;
+        mDirty = 0;
+        return dirty;
+    }
+
+    int getDate() {
+        return mSpinnerCalendar.toGregorian(mCurrentDate);
+    }
+
+    int getMinDate() {
+        return mGregorianMinDate;
+    }
+
+    int getMaxDate() {
+        return mGregorianMaxDate;
+    }
+
+    /**
+     * The calendar the spinners count in while the year is shown.
+     */
+    CalendarSystem getCalendarSystem() {
+        return mCalendar;
+    }
+
+    /**
+     * The calendar the spinners currently count in.
+     */
+    CalendarSystem getSpinnerCalendar() {
+        return mSpinnerCalendar;
+    }
+
+    int getYear() {
+        return Dates.year(mCurrentDate);
+    }
+
+    int getMonth() {
+        return Dates.month(mCurrentDate);
+    }
+
+    int getDayOfMonth() {
+        return Dates.day(mCurrentDate);
+    }
+
+    boolean isDayShown() {
+        return mIsDayShown;
+    }
+
+    boolean isYearShown() {
+        return mIsYearShown;
+    }
+
+    int getDaySpinnerMin() {
+        return mDayMin;
+    }
+
+    int getDaySpinnerMax() {
+        return mDayMax;
+    }
+
+    boolean isDaySpinnerWrapped() {
+        return mIsDayWrapped;
+    }
+
+    int getMonthSpinnerMin() {
+        return mMonthMin;
+    }
+
+    int getMonthSpinnerMax() {
+        return mMonthMax;
+    }
+
+    boolean isMonthSpinnerWrapped() {
+        return mIsMonthWrapped;
+    }
+
+    int getYearSpinnerMin() {
+        return mYearMin;
+    }
+
+    int getYearSpinnerMax() {
+        return mYearMax;
+    }
+
+    /**
+     * Shows or hides the day and year spinners. The range of a hidden spinner is not kept up,
+     * so it is marked dirty when the spinner is shown again.
+     */
+    void setFieldsShown(boolean isDayShown, boolean isYearShown) {
+        if (mIsDayShown != isDayShown || mIsYearShown != isYearShown) {
+            if (isDayShown && !mIsDayShown) {
+                mDirty |= DIRTY_DAY_RANGE;
+            }
+            if (isYearShown && !mIsYearShown) {
+                mDirty |= DIRTY_YEAR_RANGE;
+            }
+            mIsDayShown = isDayShown;
+            mIsYearShown = isYearShown;
+            mDirty |= DIRTY_VISIBILITY;
+            updateSpinnerCalendar();
+            updateSpinners();
+        }
+    }
+
+    /**
+     * Moves the dates into the calendar of the spinners when it changes.
+     */
+    private void updateSpinnerCalendar() {
+        final CalendarSystem calendar = mIsYearShown ? mCalendar : CalendarSystem.GREGORIAN;
+        if (calendar == mSpinnerCalendar) {
+            return;
+        }
+        mCurrentDate = calendar.fromGregorian(mSpinnerCalendar.toGregorian(mCurrentDate));
+        mSpinnerCalendar = calendar;
+        mMinDate = calendar.fromGregorian(mGregorianMinDate);
+        mMaxDate = calendar.fromGregorian(mGregorianMaxDate);
+    }
+
+    /**
+     * The date the spinners stepped from, moved into the known leap year when the year is
+     * hidden.
+     */
+    private int spinnerDate() {
+        return mIsYearShown ? mCurrentDate : Dates.withYear(mCurrentDate, KNOWN_LEAP_YEAR);
+    }
+
+    private void selectFromSpinner(int date) {
+        if (mIsYearShown) {
+            // skip disabled dates in the direction the spinner moved
+            final boolean forward = date >= mCurrentDate;
+            mCurrentDate = skipDisabled(Dates.clamp(date, mMinDate, mMaxDate), forward);
+        } else {
+            setDate(Dates.month(date), Dates.day(date));
+        }
+        updateSpinners();
+    }
+
+    private void setDate(int year, int month, int dayOfMonth) {
+        setDate(mSpinnerCalendar.fromGregorian(Dates.normalize(year, month, dayOfMonth)));
+    }
+
+    private void setDate(int date) {
+        date = Dates.clamp(date, mMinDate, mMaxDate);
+        mCurrentDate = mIsYearShown ? skipDisabled(date, true) : date;
+    }
+
+    /**
+     * Moves a date within the range off disabled dates, to the nearest enabled one in the
+     * preferred direction, or the other way if there is none. A date is kept as is if every
+     * date is disabled.
+     */
+    private int skipDisabled(int date, boolean forward) {
+        if (mDisabledIndex == null) {
+            return date;
+        }
+        // the index is over Gregorian dates, and may cover more than the range, see
+        // updateDisabledIndex()
+        final int gregorianDate = mSpinnerCalendar.toGregorian(date);
+        if (!mDisabledIndex.isDisabled(gregorianDate)) {
+            return date;
+        }
+        int enabled = forward ? mDisabledIndex.nextEnabled(gregorianDate)
+                : mDisabledIndex.previousEnabled(gregorianDate);
+        if (enabled < mGregorianMinDate || enabled > mGregorianMaxDate) {
+            enabled = forward ? mDisabledIndex.previousEnabled(gregorianDate)
+                    : mDisabledIndex.nextEnabled(gregorianDate);
+        }
+        return enabled >= mGregorianMinDate && enabled <= mGregorianMaxDate
+                ? mSpinnerCalendar.fromGregorian(enabled) : date;
+    }
+
+    /**
+     * Keeps the current index while it still covers the range, so that narrowing the range,
+     * as the end of a date range does when the start moves, never compiles the rules again.
+     */
+    private void updateDisabledIndex() {
+        if (mDisabledDates == null || mGregorianMinDate > mGregorianMaxDate) {
+            mDisabledIndex = null;
+        } else if (mDisabledIndex == null || mDisabledIndex.getMinDate() > mGregorianMinDate
+                || mDisabledIndex.getMaxDate() < mGregorianMaxDate) {
+            mDisabledIndex = mDisabledDates.index(mGregorianMinDate, mGregorianMaxDate);
+        }
+    }
+
+    private void setDate(int month, int dayOfMonth) {
+        mCurrentDate = mSpinnerCalendar.fromGregorian(
+                Dates.normalize(KNOWN_LEAP_YEAR, month, dayOfMonth));
+    }
+
+    /**
+     * Works out what the spinners show for the current date and range, narrowing the day and
+     * month ranges on the min and max dates, and marks the differences dirty.
+     */
+    private void updateSpinners() {
+        final int year = Dates.year(mCurrentDate);
+        final int month = Dates.month(mCurrentDate);
+        final int dayOfMonth = Dates.day(mCurrentDate);
+        final CalendarSystem calendar = mSpinnerCalendar;
+        final int lastMonth = calendar.getMonthsInYear(year) - 1;
+        int dirty = mDirty;
+
+        // set the spinner ranges respecting the min and max dates
+        final int dayMin;
+        final int dayMax;
+        final int monthMin;
+        final int monthMax;
+        final boolean isWrapped;
+        // no month lengths are looked up for a hidden day spinner
+        if (mIsYearShown && mCurrentDate == mMinDate) {
+            dayMin = dayOfMonth;
+            dayMax = mIsDayShown ? calendar.getDaysInMonth(year, month) : 0;
+            monthMin = month;
+            monthMax = lastMonth;
+            isWrapped = false;
+        } else if (mIsYearShown && mCurrentDate == mMaxDate) {
+            dayMin = 1;
+            dayMax = dayOfMonth;
+            monthMin = 0;
+            monthMax = month;
+            isWrapped = false;
+        } else {
+            dayMin = 1;
+            dayMax = mIsDayShown
+                    ? calendar.getDaysInMonth(mIsYearShown ? year : KNOWN_LEAP_YEAR, month) : 0;
+            monthMin = 0;
+            monthMax = lastMonth;
+            isWrapped = true;
+        }
+        if (mIsDayShown
+                && (dayMin != mDayMin || dayMax != mDayMax || isWrapped != mIsDayWrapped)) {
+            mDayMin = dayMin;
+            mDayMax = dayMax;
+            mIsDayWrapped = isWrapped;
+            dirty |= DIRTY_DAY_RANGE;
+        }
+        if (monthMin != mMonthMin || monthMax != mMonthMax || isWrapped != mIsMonthWrapped) {
+            mMonthMin = monthMin;
+            mMonthMax = monthMax;
+            mIsMonthWrapped = isWrapped;
+            dirty |= DIRTY_MONTH_RANGE;
+        }
+
+        // year spinner range does not change based on the current date
+        final int yearMin = Dates.year(mMinDate);
+        final int yearMax = Dates.year(mMaxDate);
+        if (yearMin != mYearMin || yearMax != mYearMax) {
+            mYearMin = yearMin;
+            mYearMax = yearMax;
+            dirty |= DIRTY_YEAR_RANGE;
+        }
+
+        // set the spinner values
+        if (year != mYear) {
+            mYear = year;
+            dirty |= DIRTY_YEAR_VALUE | DIRTY_DATE;
+        }
+        if (month != mMonth) {
+            mMonth = month;
+            dirty |= DIRTY_MONTH_VALUE | DIRTY_DATE;
+        }
+        if (dayOfMonth != mDay) {
+            mDay = dayOfMonth;
+            dirty |= DIRTY_DAY_VALUE | DIRTY_DATE;
+        }
+        mDirty = dirty;
+    }
+}
@@ -0,0 +1,91 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.view.View;
+import android.widget.EditText;
+import android.widget.NumberPicker;
+
+/**
+ * The part of the {@link NumberPicker} API that {@link SpinnerDatePicker} drives, so that a
+ * day, month or year spinner can be either a NumberPicker or a {@link WheelPicker}.
+ */
+interface DateSpinner {
+
+    /**
+     * Interface to listen for changes of the current value.
+     */
+    interface OnValueChangeListener {
+        void onValueChange(DateSpinner spinner, int oldVal, int newVal);
+    }
+
+    /**
+     * Interface to listen for the scroll state, with the same states as
+     * {@link NumberPicker.OnScrollListener}.
+     */
+    interface OnScrollListener {
+
+        int SCROLL_STATE_IDLE = NumberPicker.OnScrollListener.SCROLL_STATE_IDLE;
+
+        int SCROLL_STATE_TOUCH_SCROLL = NumberPicker.OnScrollListener.SCROLL_STATE_TOUCH_SCROLL;
+
+        int SCROLL_STATE_FLING = NumberPicker.OnScrollListener.SCROLL_STATE_FLING;
+
+        void onScrollStateChange(DateSpinner spinner, int scrollState);
+    }
+
+    /**
+     * Reads typed text back into a spinner value, for labels that are not the values.
+     */
+    interface InputParser {
+
+        int NO_VALUE = Integer.MIN_VALUE;
+
+        /**
+         * @return The spinner value, or {@link #NO_VALUE} if the text holds none.
+         */
+        int parseValue(CharSequence text);
+    }
+
+    View getView();
+
+    int getMinValue();
+
+    void setMinValue(int minValue);
+
+    int getMaxValue();
+
+    void setMaxValue(int maxValue);
+
+    int getValue();
+
+    void setValue(int value);
+
+    boolean getWrapSelectorWheel();
+
+    void setWrapSelectorWheel(boolean wrapSelectorWheel);
+
+    String[] getDisplayedValues();
+
+    void setDisplayedValues(String[] displayedValues);
+
+    void setFormatter(NumberPicker.Formatter formatter);
+
+    /**
+     * Sets how typed text is read, or null to read it as a number or a displayed value.
+     */
+    void setInputParser(InputParser inputParser);
+
+    void setOnLongPressUpdateInterval(long intervalMillis);
+
+    void setOnValueChangedListener(OnValueChangeListener onValueChangedListener);
+
+    void setOnScrollListener(OnScrollListener onScrollListener);
+
+    void setImeOptions(int imeOptions);
+
+    void setRawInputType(int type);
+
+    /**
+     * Gets the text input of the spinner, if it currently has one.
+     */
+    EditText getInput();
+}
@@ -0,0 +1,109 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs a {@link DateValidator} for the dates a picker settles on, keeping only the result for
+ * the latest one.
+ *
+ * Every request bumps a generation. A check still queued on the executor when a newer
+ * request comes in returns without calling the validator, and a result is posted back to the
+ * main thread and dropped there unless its generation is still the latest. The main thread
+ * never waits for a check.
+ */
+final class DateValidation {
+
+    /**
+     * Told on the main thread whenever the date becomes pending, valid or invalid.
+     */
+    interface Listener {
+        void onValidityChanged(SpinnerDatePicker view);
+    }
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final SpinnerDatePicker mView;
+
+    private final DateValidator mValidator;
+
+    private final Executor mExecutor;
+
+    private final Listener mListener;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Only written on the main thread, read by the checks to see whether they are stale.
+     */
+    private volatile int mGeneration;
+
+    private int mRequestedDate = NO_DATE;
+
+    private boolean mIsPending;
+
+    private boolean mIsValid;
+
+    DateValidation(SpinnerDatePicker view,
+                   DateValidator validator,
+                   Executor executor,
+                   Listener listener) {
+        mView = view;
+        mValidator = validator;
+        mExecutor = executor;
+        mListener = listener;
+    }
+
+    /**
+     * Validates a packed date, unless it is the one last requested.
+     */
+    void request(int date) {
+        if (date == mRequestedDate) {
+            return;
+        }
+        mRequestedDate = date;
+        final int generation = ++mGeneration;
+        mIsPending = true;
+        mExecutor.execute(() -> {
+            if (generation != mGeneration) {
+                // scrolled past before the check started
+                return;
+            }
+            final boolean isValid = mValidator.isValid(Dates.year(date), Dates.month(date),
+                    Dates.day(date));
+            mMainHandler.post(() -> deliver(generation, isValid));
+        });
+        if (mListener != null) {
+            mListener.onValidityChanged(mView);
+        }
+    }
+
+    /**
+     * Drops the checks in flight, so that none of them is delivered.
+     */
+    void cancel() {
+        mGeneration++;
+        mRequestedDate = NO_DATE;
+        mIsPending = false;
+    }
+
+    /**
+     * Whether the latest date has been found valid. A date still being checked is not.
+     */
+    boolean isValid() {
+        return !mIsPending && mIsValid;
+    }
+
+    private void deliver(int generation, boolean isValid) {
+        if (generation != mGeneration) {
+            return;
+        }
+        mIsPending = false;
+        mIsValid = isValid;
+        if (mListener != null) {
+            mListener.onValidityChanged(mView);
+        }
+    }
+}
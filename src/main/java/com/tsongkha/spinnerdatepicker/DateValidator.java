@@ -0,0 +1,20 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * Checks whether a picked date can be accepted, for example against the availability kept
+ * in a database.
+ *
+ * Runs on the {@link java.util.concurrent.Executor} it was given with, never on the main
+ * thread, so it may block. A check for a date the user already scrolled past is skipped if it
+ * has not started yet, and its result is dropped otherwise.
+ */
+public interface DateValidator {
+    /**
+     * @param year        The year, {@link SpinnerDatePicker#KNOWN_LEAP_YEAR} while the year
+     *                    spinner is hidden.
+     * @param monthOfYear The month (0-11) for compatibility with {@link java.util.Calendar}.
+     * @param dayOfMonth  The day of the month.
+     * @return Whether the date can be accepted.
+     */
+    boolean isValid(int year, int monthOfYear, int dayOfMonth);
+}
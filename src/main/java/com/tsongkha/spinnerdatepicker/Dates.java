@@ -0,0 +1,193 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Allocation-free proleptic Gregorian date arithmetic.
+ *
+ * A date is packed into a single int as {@code (year << 9) | (month << 5) | day}, where
+ * month is zero based for compatibility with {@link java.util.Calendar}. Packed dates of
+ * valid days compare in chronological order, so clamping against a min and max date is a
+ * plain int comparison. Nothing in here allocates or does any time zone math, which keeps
+ * the per-tick work of the spinners down to a handful of integer operations.
+ */
+final class Dates {
+
+    static final int MONTHS_PER_YEAR = 12;
+
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private Dates() {
+    }
+
+    static int of(int year, int month, int dayOfMonth) {
+        return (year << 9) | (month << 5) | dayOfMonth;
+    }
+
+    /**
+     * Packs the date of a Calendar, turning years of the BC era into astronomical years so
+     * that 1 BC is year 0.
+     */
+    static int of(Calendar calendar) {
+        int year = calendar.get(Calendar.YEAR);
+        if (calendar.get(Calendar.ERA) == GregorianCalendar.BC) {
+            year = 1 - year;
+        }
+        return of(year, calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH));
+    }
+
+    static int year(int date) {
+        return date >> 9;
+    }
+
+    static int month(int date) {
+        return (date >> 5) & 0xF;
+    }
+
+    static int day(int date) {
+        return date & 0x1F;
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int daysInMonth(int year, int month) {
+        return month == 1 && isLeapYear(year) ? 29 : DAYS_IN_MONTH[month];
+    }
+
+    /**
+     * Packs a date, rolling over out of range months and days the same way a lenient
+     * {@link java.util.Calendar} would.
+     */
+    static int normalize(int year, int month, int dayOfMonth) {
+        if (month >= 0 && month < MONTHS_PER_YEAR
+                && dayOfMonth >= 1 && dayOfMonth <= daysInMonth(year, month)) {
+            return of(year, month, dayOfMonth);
+        }
+        year += floorDiv(month, MONTHS_PER_YEAR);
+        month = floorMod(month, MONTHS_PER_YEAR);
+        return fromEpochDay(toEpochDay(year, month, 1) + dayOfMonth - 1);
+    }
+
+    static int toEpochDay(int date) {
+        return toEpochDay(year(date), month(date), day(date));
+    }
+
+    /**
+     * Days since 1970-01-01 of a valid date, see Howard Hinnant's days_from_civil.
+     */
+    static int toEpochDay(int year, int month, int dayOfMonth) {
+        int m = month + 1;
+        int y = m <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    static int fromEpochDay(int epochDay) {
+        int z = epochDay + DAYS_0000_TO_1970;
+        int era = (z >= 0 ? z : z - DAYS_PER_CYCLE + 1) / DAYS_PER_CYCLE;
+        int dayOfEra = z - era * DAYS_PER_CYCLE;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (m <= 2 ? 1 : 0);
+        return of(year, m - 1, dayOfMonth);
+    }
+
+    static int plusDays(int date, int days) {
+        int dayOfMonth = day(date) + days;
+        if (dayOfMonth >= 1 && dayOfMonth <= 28) {
+            return (date & ~0x1F) | dayOfMonth;
+        }
+        return fromEpochDay(toEpochDay(date) + days);
+    }
+
+    /**
+     * Adds months, pinning the day to the length of the resulting month like
+     * {@link java.util.Calendar#add(int, int)} does.
+     */
+    static int plusMonths(int date, int months) {
+        int total = year(date) * MONTHS_PER_YEAR + month(date) + months;
+        int year = floorDiv(total, MONTHS_PER_YEAR);
+        int month = total - year * MONTHS_PER_YEAR;
+        return of(year, month, Math.min(day(date), daysInMonth(year, month)));
+    }
+
+    /**
+     * Replaces the year, pinning the day to the length of the month in the new year.
+     */
+    static int withYear(int date, int year) {
+        int month = month(date);
+        return of(year, month, Math.min(day(date), daysInMonth(year, month)));
+    }
+
+    /**
+     * Applies a day spinner change, treating a jump between the last day of the month and
+     * the first as the wheel wrapping into the next or previous month.
+     */
+    static int stepDay(int date, int oldVal, int newVal) {
+        int maxDayOfMonth = daysInMonth(year(date), month(date));
+        if (oldVal == maxDayOfMonth && newVal == 1) {
+            return plusDays(date, 1);
+        } else if (oldVal == 1 && newVal == maxDayOfMonth) {
+            return plusDays(date, -1);
+        }
+        return plusDays(date, newVal - oldVal);
+    }
+
+    /**
+     * Applies a month spinner change, treating a jump between December and January as the
+     * wheel wrapping into the next or previous year.
+     */
+    static int stepMonth(int date, int oldVal, int newVal) {
+        if (oldVal == MONTHS_PER_YEAR - 1 && newVal == 0) {
+            return plusMonths(date, 1);
+        } else if (oldVal == 0 && newVal == MONTHS_PER_YEAR - 1) {
+            return plusMonths(date, -1);
+        }
+        return plusMonths(date, newVal - oldVal);
+    }
+
+    static int clamp(int date, int minDate, int maxDate) {
+        if (date < minDate) {
+            return minDate;
+        } else if (date > maxDate) {
+            return maxDate;
+        }
+        return date;
+    }
+
+    /**
+     * The current date in the default time zone.
+     */
+    static int today() {
+        long now = System.currentTimeMillis();
+        long local = now + TimeZone.getDefault().getOffset(now);
+        return fromEpochDay((int) (local >= 0 ? local / MILLIS_PER_DAY
+                : (local - MILLIS_PER_DAY + 1) / MILLIS_PER_DAY));
+    }
+
+    // Math.floorDiv and Math.floorMod are only available from API 24.
+    private static int floorDiv(int x, int y) {
+        int q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+
+    private static int floorMod(int x, int y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared tables of formatted numbers for the spinners, built once per zero digit (Latin,
+ * Arabic-Indic, Devanagari and so on) so that drawing an item is a plain array lookup.
+ *
+ * The tables are shared between threads and pickers and must not be modified.
+ */
+final class DigitTables {
+
+    /**
+     * The most years a year table holds, so that narrow ranges far apart are not merged into
+     * one huge table.
+     */
+    static final int MAX_YEAR_TABLE_SIZE = 512;
+
+    private static final ConcurrentHashMap<Locale, Character> sZeroDigits =
+            new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<Character, String[]> sTwoDigits =
+            new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<Character, YearTable> sYears =
+            new ConcurrentHashMap<>();
+
+    private DigitTables() {
+    }
+
+    /**
+     * A table of unpadded years from {@link #minYear}, indexed by {@code year - minYear}.
+     */
+    static final class YearTable {
+
+        final int minYear;
+
+        final String[] years;
+
+        YearTable(int minYear, String[] years) {
+            this.minYear = minYear;
+            this.years = years;
+        }
+
+        boolean covers(int minYear, int maxYear) {
+            return minYear >= this.minYear && maxYear < this.minYear + years.length;
+        }
+    }
+
+    static char zeroDigit(Locale locale) {
+        Character zeroDigit = sZeroDigits.get(locale);
+        if (zeroDigit == null) {
+            // The original TwoDigitFormatter directly referenced LocaleData's value. Instead,
+            // we need to use the public DecimalFormatSymbols API.
+            zeroDigit = DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+            sZeroDigits.put(locale, zeroDigit);
+        }
+        return zeroDigit;
+    }
+
+    /**
+     * Zero padded "00" to "99".
+     */
+    static String[] twoDigits(char zeroDigit) {
+        String[] table = sTwoDigits.get(zeroDigit);
+        if (table == null) {
+            table = new String[100];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = format(zeroDigit, i, 2);
+            }
+            String[] existing = sTwoDigits.putIfAbsent(zeroDigit, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Unpadded numbers from {@code from} to {@code to} inclusive, in a new array.
+     */
+    static String[] numbers(char zeroDigit, int from, int to) {
+        String[] numbers = new String[to - from + 1];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = format(zeroDigit, from + i, 1);
+        }
+        return numbers;
+    }
+
+    /**
+     * A year table covering at least {@code minYear} to {@code maxYear}. The last table built
+     * for a zero digit is reused as long as it covers the requested range, and grown to cover
+     * it as long as it stays within {@link #MAX_YEAR_TABLE_SIZE} years.
+     */
+    static YearTable years(char zeroDigit, int minYear, int maxYear) {
+        YearTable table = sYears.get(zeroDigit);
+        if (table == null || !table.covers(minYear, maxYear)) {
+            if (table != null) {
+                int mergedMinYear = Math.min(minYear, table.minYear);
+                int mergedMaxYear = Math.max(maxYear, table.minYear + table.years.length - 1);
+                if (mergedMaxYear - mergedMinYear < MAX_YEAR_TABLE_SIZE) {
+                    minYear = mergedMinYear;
+                    maxYear = mergedMaxYear;
+                }
+            }
+            table = new YearTable(minYear, numbers(zeroDigit, minYear, maxYear));
+            sYears.put(zeroDigit, table);
+        }
+        return table;
+    }
+
+    static String format(char zeroDigit, int value, int minDigits) {
+        char[] buffer = new char[12];
+        int position = buffer.length;
+        long remaining = Math.abs((long) value);
+        do {
+            buffer[--position] = (char) (zeroDigit + (int) (remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0 || buffer.length - position < minDigits);
+        if (value < 0) {
+            buffer[--position] = '-';
+        }
+        return new String(buffer, position, buffer.length - position);
+    }
+}
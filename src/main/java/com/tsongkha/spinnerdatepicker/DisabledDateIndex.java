@@ -0,0 +1,92 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * {@link DisabledDates} compiled into one bit per day between a min and a max date, set for
+ * the disabled ones.
+ *
+ * A lookup is a little arithmetic and a word read, and finding the next or previous enabled
+ * date scans 64 days per step, so neither depends on how many rules or disabled days there are.
+ * Immutable.
+ */
+final class DisabledDateIndex {
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final int mMinDate;
+
+    private final int mMaxDate;
+
+    private final int mFirstDay;
+
+    private final int mDayCount;
+
+    private final long[] mWords;
+
+    DisabledDateIndex(int minDate, int maxDate, int firstDay, int dayCount, long[] words) {
+        mMinDate = minDate;
+        mMaxDate = maxDate;
+        mFirstDay = firstDay;
+        mDayCount = dayCount;
+        mWords = words;
+    }
+
+    int getMinDate() {
+        return mMinDate;
+    }
+
+    int getMaxDate() {
+        return mMaxDate;
+    }
+
+    boolean isDisabled(int date) {
+        final int day = Dates.toEpochDay(date) - mFirstDay;
+        return day >= 0 && day < mDayCount && (mWords[day >>> 6] & (1L << day)) != 0;
+    }
+
+    /**
+     * Gets the first enabled date on or after a date within the range.
+     *
+     * @return The date, or {@link #NO_DATE} if there is none.
+     */
+    int nextEnabled(int date) {
+        final int day = Dates.toEpochDay(date) - mFirstDay;
+        int word = day >>> 6;
+        long enabled = ~mWords[word] & (-1L << day);
+        while (enabled == 0) {
+            if (++word == mWords.length) {
+                return NO_DATE;
+            }
+            enabled = ~mWords[word];
+        }
+        final int next = (word << 6) + Long.numberOfTrailingZeros(enabled);
+        return next < mDayCount ? Dates.fromEpochDay(mFirstDay + next) : NO_DATE;
+    }
+
+    /**
+     * Gets the last enabled date on or before a date within the range.
+     *
+     * @return The date, or {@link #NO_DATE} if there is none.
+     */
+    int previousEnabled(int date) {
+        final int day = Dates.toEpochDay(date) - mFirstDay;
+        int word = day >>> 6;
+        long enabled = ~mWords[word] & (-1L >>> (63 - (day & 63)));
+        while (enabled == 0) {
+            if (--word < 0) {
+                return NO_DATE;
+            }
+            enabled = ~mWords[word];
+        }
+        return Dates.fromEpochDay(mFirstDay + (word << 6) + 63
+                - Long.numberOfLeadingZeros(enabled));
+    }
+
+    /**
+     * Whether a date from {@code minDate} to {@code maxDate} inclusive, within the range, is
+     * enabled.
+     */
+    boolean hasEnabledDate(int minDate, int maxDate) {
+        final int enabled = nextEnabled(minDate);
+        return enabled != NO_DATE && enabled <= maxDate;
+    }
+}
@@ -0,0 +1,210 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * Dates that cannot be picked, such as holidays, weekends or sold out days, set with
+ * {@link SpinnerDatePickerDialogBuilder#disabledDates(DisabledDates)}.
+ *
+ * The rules are compiled into a bitset over the days between the min and max dates of the
+ * picker when it is built, so scrolling never evaluates them. When the spinners land on a
+ * disabled date they skip ahead to the nearest enabled one in the direction of the scroll.
+ * Months are zero based, for compatibility with {@link Calendar}. The rules only apply while
+ * the year spinner is shown.
+ *
+ * The rules are frozen once given to a builder, and adding to them after that throws an
+ * {@link IllegalStateException}. Build new DisabledDates to change them.
+ */
+public class DisabledDates {
+
+    private int[] mDates = new int[8];
+
+    private int mDateCount;
+
+    private int[] mRanges = new int[0];
+
+    private int mRangeCount;
+
+    private int mDaysOfWeek;
+
+    private int mDaysOfMonth;
+
+    private final int[] mDaysOfYear = new int[Dates.MONTHS_PER_YEAR];
+
+    private DisabledDateIndex mIndex;
+
+    private boolean mIsFrozen;
+
+    /**
+     * Disables a single date.
+     */
+    public DisabledDates date(int year, int monthIndexedFromZero, int day) {
+        checkNotFrozen();
+        if (mDateCount == mDates.length) {
+            mDates = Arrays.copyOf(mDates, mDateCount * 2);
+        }
+        mDates[mDateCount++] = Dates.normalize(year, monthIndexedFromZero, day);
+        return this;
+    }
+
+    /**
+     * Disables every date from the first to the last one inclusive.
+     */
+    public DisabledDates range(int fromYear, int fromMonthIndexedFromZero, int fromDay,
+                               int toYear, int toMonthIndexedFromZero, int toDay) {
+        checkNotFrozen();
+        int from = Dates.normalize(fromYear, fromMonthIndexedFromZero, fromDay);
+        int to = Dates.normalize(toYear, toMonthIndexedFromZero, toDay);
+        if (to < from) throw new IllegalArgumentException("Range ends before it starts");
+        if (mRangeCount * 2 == mRanges.length) {
+            mRanges = Arrays.copyOf(mRanges, Math.max(4, mRanges.length * 2));
+        }
+        mRanges[mRangeCount * 2] = from;
+        mRanges[mRangeCount * 2 + 1] = to;
+        mRangeCount++;
+        return this;
+    }
+
+    /**
+     * Disables days of the week, such as {@link Calendar#SATURDAY} and {@link Calendar#SUNDAY}.
+     */
+    public DisabledDates daysOfWeek(int... daysOfWeek) {
+        checkNotFrozen();
+        for (int dayOfWeek : daysOfWeek) {
+            if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY) {
+                throw new IllegalArgumentException("Invalid day of week " + dayOfWeek);
+            }
+            mDaysOfWeek |= 1 << dayOfWeek;
+        }
+        return this;
+    }
+
+    /**
+     * Disables a day of the month in every month, skipping months that are too short.
+     */
+    public DisabledDates monthly(int day) {
+        checkNotFrozen();
+        if (day < 1 || day > 31) throw new IllegalArgumentException("Invalid day " + day);
+        mDaysOfMonth |= 1 << day;
+        return this;
+    }
+
+    /**
+     * Disables a day of the year in every year, such as December 25th.
+     */
+    public DisabledDates yearly(int monthIndexedFromZero, int day) {
+        checkNotFrozen();
+        if (monthIndexedFromZero < 0 || monthIndexedFromZero >= Dates.MONTHS_PER_YEAR) {
+            throw new IllegalArgumentException("Invalid month " + monthIndexedFromZero);
+        }
+        if (day < 1 || day > 31) throw new IllegalArgumentException("Invalid day " + day);
+        mDaysOfYear[monthIndexedFromZero] |= 1 << day;
+        return this;
+    }
+
+    /**
+     * Stops the rules from changing, as the pickers given them keep their compiled index and
+     * would not see a change.
+     */
+    void freeze() {
+        mIsFrozen = true;
+    }
+
+    private void checkNotFrozen() {
+        if (mIsFrozen) throw new IllegalStateException("DisabledDates can not change once given to a builder");
+    }
+
+    /**
+     * Gets the rules compiled over at least the packed dates from {@code minDate} to
+     * {@code maxDate} inclusive, reusing the last index built while it covers them, so that
+     * the check of the builder and the pickers of a dialog share one.
+     */
+    DisabledDateIndex index(int minDate, int maxDate) {
+        DisabledDateIndex index = mIndex;
+        if (index == null || index.getMinDate() > minDate || index.getMaxDate() < maxDate) {
+            index = compile(minDate, maxDate);
+            mIndex = index;
+        }
+        return index;
+    }
+
+    private DisabledDateIndex compile(int minDate, int maxDate) {
+        final int firstDay = Dates.toEpochDay(minDate);
+        final int dayCount = Dates.toEpochDay(maxDate) - firstDay + 1;
+        final long[] words = new long[(dayCount + 63) >>> 6];
+
+        // recurring rules, walking the days month by month with the day of the week in step
+        if (mDaysOfWeek != 0 || mDaysOfMonth != 0 || hasDaysOfYear()) {
+            // 1970-01-01 was a Thursday
+            int dayOfWeek = ((firstDay + 4) % 7 + 7) % 7 + Calendar.SUNDAY;
+            int year = Dates.year(minDate);
+            int month = Dates.month(minDate);
+            int dayOfMonth = Dates.day(minDate);
+            int i = 0;
+            while (i < dayCount) {
+                final int monthMask = mDaysOfMonth | mDaysOfYear[month];
+                final int lastDay = Math.min(Dates.daysInMonth(year, month),
+                        dayOfMonth + dayCount - 1 - i);
+                for (; dayOfMonth <= lastDay; dayOfMonth++, i++) {
+                    if ((mDaysOfWeek & (1 << dayOfWeek)) != 0
+                            || (monthMask & (1 << dayOfMonth)) != 0) {
+                        words[i >>> 6] |= 1L << i;
+                    }
+                    dayOfWeek = dayOfWeek == Calendar.SATURDAY ? Calendar.SUNDAY : dayOfWeek + 1;
+                }
+                dayOfMonth = 1;
+                if (++month == Dates.MONTHS_PER_YEAR) {
+                    month = 0;
+                    year++;
+                }
+            }
+        }
+
+        for (int i = 0; i < mDateCount; i++) {
+            final int date = mDates[i];
+            if (date >= minDate && date <= maxDate) {
+                final int day = Dates.toEpochDay(date) - firstDay;
+                words[day >>> 6] |= 1L << day;
+            }
+        }
+
+        for (int i = 0; i < mRangeCount; i++) {
+            final int from = Math.max(mRanges[i * 2], minDate);
+            final int to = Math.min(mRanges[i * 2 + 1], maxDate);
+            if (from <= to) {
+                setRange(words, Dates.toEpochDay(from) - firstDay,
+                        Dates.toEpochDay(to) - firstDay);
+            }
+        }
+        return new DisabledDateIndex(minDate, maxDate, firstDay, dayCount, words);
+    }
+
+    private boolean hasDaysOfYear() {
+        for (int days : mDaysOfYear) {
+            if (days != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the bits from {@code from} to {@code to} inclusive a word at a time.
+     */
+    private static void setRange(long[] words, int from, int to) {
+        final int firstWord = from >>> 6;
+        final int lastWord = to >>> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> (63 - (to & 63));
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+}
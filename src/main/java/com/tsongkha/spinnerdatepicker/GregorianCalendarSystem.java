@@ -0,0 +1,85 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+/**
+ * The proleptic Gregorian calendar of {@link Dates}, which dates are already packed in, so
+ * converting is free and every step is the plain arithmetic of {@link Dates}.
+ */
+class GregorianCalendarSystem extends CalendarSystem {
+
+    @Override
+    public int getMonthsInYear(int year) {
+        return Dates.MONTHS_PER_YEAR;
+    }
+
+    @Override
+    public int getDaysInMonth(int year, int month) {
+        return Dates.daysInMonth(year, month);
+    }
+
+    @Override
+    public int toEpochDay(int year, int month, int dayOfMonth) {
+        return Dates.toEpochDay(year, month, dayOfMonth);
+    }
+
+    @Override
+    public int fromEpochDay(int epochDay) {
+        return Dates.fromEpochDay(epochDay);
+    }
+
+    /**
+     * Years before 1 AD are numbered backwards from 1 BC.
+     */
+    @Override
+    public int getYearOfEra(int year) {
+        return year > 0 ? year : 1 - year;
+    }
+
+    @Override
+    public String formatYear(int year, String yearOfEra, Locale locale) {
+        return year > 0 ? yearOfEra
+                : yearOfEra + " " + DateFormatSymbols.getInstance(locale).getEras()[0];
+    }
+
+    @Override
+    boolean labelsYearsWithDigits() {
+        return true;
+    }
+
+    @Override
+    int toGregorian(int date) {
+        return date;
+    }
+
+    @Override
+    int fromGregorian(int gregorianDate) {
+        return gregorianDate;
+    }
+
+    @Override
+    int plusDays(int date, int days) {
+        return Dates.plusDays(date, days);
+    }
+
+    @Override
+    int plusMonths(int date, int months) {
+        return Dates.plusMonths(date, months);
+    }
+
+    @Override
+    int withYear(int date, int year) {
+        return Dates.withYear(date, year);
+    }
+
+    @Override
+    int stepDay(int date, int oldVal, int newVal) {
+        return Dates.stepDay(date, oldVal, newVal);
+    }
+
+    @Override
+    int stepMonth(int date, int oldVal, int newVal) {
+        return Dates.stepMonth(date, oldVal, newVal);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.util.Locale;
+
+/**
+ * The Gregorian calendar with years counted by Japanese era from Meiji on, like the
+ * {@code ja_JP_JP} locale of {@link java.util.Calendar}. Years before Meiji are Gregorian.
+ *
+ * A spinner shows whole years, so a year in which the era changed is labelled with the era
+ * it ended in, 2019 being Reiwa 1 rather than Heisei 31.
+ */
+final class JapaneseCalendarSystem extends GregorianCalendarSystem {
+
+    /**
+     * The Gregorian years the eras started in, oldest first.
+     */
+    private static final int[] ERA_START_YEARS = {1868, 1912, 1926, 1989, 2019};
+
+    private static final String[] ERA_NAMES = {"Meiji", "Taisho", "Showa", "Heisei", "Reiwa"};
+
+    private static final String[] ERA_NAMES_JA = {
+            "\u660e\u6cbb", "\u5927\u6b63", "\u662d\u548c", "\u5e73\u6210", "\u4ee4\u548c"
+    };
+
+    @Override
+    public int getYearOfEra(int year) {
+        final int era = getEra(year);
+        return era < 0 ? super.getYearOfEra(year) : year - ERA_START_YEARS[era] + 1;
+    }
+
+    @Override
+    public String formatYear(int year, String yearOfEra, Locale locale) {
+        final int era = getEra(year);
+        if (era < 0) {
+            return super.formatYear(year, yearOfEra, locale);
+        }
+        return "ja".equals(locale.getLanguage()) ? ERA_NAMES_JA[era] + yearOfEra
+                : ERA_NAMES[era] + " " + yearOfEra;
+    }
+
+    @Override
+    boolean labelsYearsWithDigits() {
+        return false;
+    }
+
+    /**
+     * The index of the era a year ended in, or -1 before Meiji.
+     */
+    private static int getEra(int year) {
+        int era = ERA_START_YEARS.length - 1;
+        while (era >= 0 && year < ERA_START_YEARS[era]) {
+            era--;
+        }
+        return era;
+    }
+}
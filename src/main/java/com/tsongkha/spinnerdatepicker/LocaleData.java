@@ -0,0 +1,107 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.text.format.DateFormat;
+
+import java.text.DateFormatSymbols;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locale dependent data needed to lay out a {@link SpinnerDatePicker}, resolved once per
+ * locale and shared by every picker in the process.
+ *
+ * Resolving the spinner order needs an ICU skeleton lookup through
+ * {@link DateFormat#getBestDateTimePattern(Locale, String)}, which can take milliseconds on a
+ * cold device. Instances are immutable, so the arrays they hold must not be modified.
+ */
+final class LocaleData {
+
+    private static final ConcurrentHashMap<Locale, LocaleData> sCache = new ConcurrentHashMap<>();
+
+    private static volatile LocaleData sLast;
+
+    final Locale locale;
+
+    /**
+     * The order of the day, month and year spinners, see {@link ICU#getDateFormatOrder(String)}.
+     */
+    final char[] order;
+
+    /**
+     * The month labels, numeric in locales where there are no real month names.
+     */
+    final String[] shortMonths;
+
+    final boolean numericMonths;
+
+    final int numberOfMonths;
+
+    /**
+     * The zero digit of the locale's digits, see {@link DigitTables}.
+     */
+    final char zeroDigit;
+
+    /**
+     * The era name of years before 1 AD, see {@link YearFormatter}.
+     */
+    final String beforeEraName;
+
+    private LocaleData(Locale locale) {
+        this.locale = locale;
+        // We use numeric spinners for year and day, but textual months. Ask icu4c what
+        // order the user's locale uses for that combination. http://b/7207103.
+        order = ICU.getDateFormatOrder(DateFormat.getBestDateTimePattern(locale, "yyyyMMMdd"));
+        numberOfMonths = Dates.MONTHS_PER_YEAR;
+        zeroDigit = DigitTables.zeroDigit(locale);
+
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        beforeEraName = symbols.getEras()[0];
+
+        String[] months = symbols.getShortMonths();
+        // Tests whether this is a locale where there are no real month names,
+        // such as Chinese, Japanese, or Korean locales.
+        numericMonths = Character.isDigit(months[Calendar.JANUARY].charAt(0));
+        if (numericMonths) {
+            // We're in a locale where a date should either be all-numeric, or all-text.
+            // All-text would require custom NumberPicker formatters for day and year.
+            months = DigitTables.numbers(zeroDigit, 1, numberOfMonths);
+        }
+        shortMonths = months;
+    }
+
+    /**
+     * Whether a picker lays out and labels its spinners the same way with both.
+     */
+    boolean looksLike(LocaleData other) {
+        return other == this || other != null
+                && zeroDigit == other.zeroDigit
+                && numericMonths == other.numericMonths
+                && Arrays.equals(order, other.order)
+                && Arrays.equals(shortMonths, other.shortMonths)
+                && beforeEraName.equals(other.beforeEraName);
+    }
+
+    /**
+     * Gets the data for a locale, resolving it on first use.
+     *
+     * @param locale The locale.
+     */
+    static LocaleData get(Locale locale) {
+        LocaleData last = sLast;
+        if (last != null && last.locale.equals(locale)) {
+            return last;
+        }
+        LocaleData data = sCache.get(locale);
+        if (data == null) {
+            data = new LocaleData(locale);
+            LocaleData existing = sCache.putIfAbsent(locale, data);
+            if (existing != null) {
+                data = existing;
+            }
+        }
+        sLast = data;
+        return data;
+    }
+}
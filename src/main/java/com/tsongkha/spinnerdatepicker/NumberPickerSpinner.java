@@ -0,0 +1,145 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.view.View;
+import android.widget.EditText;
+import android.widget.NumberPicker;
+
+/**
+ * A {@link DateSpinner} backed by a platform {@link NumberPicker}.
+ */
+final class NumberPickerSpinner implements DateSpinner {
+
+    private final NumberPicker mPicker;
+
+    private final EditText mInput;
+
+    private InputParser mInputParser;
+
+    NumberPickerSpinner(NumberPicker picker) {
+        mPicker = picker;
+        mInput = NumberPickers.findEditText(picker);
+        if (mInput != null) {
+            // the picker reads its input when it loses focus, also after the IME action
+            final View.OnFocusChangeListener pickerListener = mInput.getOnFocusChangeListener();
+            mInput.setOnFocusChangeListener((view, hasFocus) -> {
+                if (!hasFocus && mInputParser != null) {
+                    toRawInput();
+                }
+                if (pickerListener != null) {
+                    pickerListener.onFocusChange(view, hasFocus);
+                }
+            });
+        }
+    }
+
+    /**
+     * Replaces the typed text with the spinner value it stands for, as the picker parses its
+     * input as a raw value.
+     */
+    private void toRawInput() {
+        final int value = mInputParser.parseValue(mInput.getText());
+        mInput.setText(Integer.toString(value != InputParser.NO_VALUE ? value
+                : mPicker.getValue()));
+    }
+
+    @Override
+    public View getView() {
+        return mPicker;
+    }
+
+    @Override
+    public int getMinValue() {
+        return mPicker.getMinValue();
+    }
+
+    @Override
+    public void setMinValue(int minValue) {
+        mPicker.setMinValue(minValue);
+    }
+
+    @Override
+    public int getMaxValue() {
+        return mPicker.getMaxValue();
+    }
+
+    @Override
+    public void setMaxValue(int maxValue) {
+        mPicker.setMaxValue(maxValue);
+    }
+
+    @Override
+    public int getValue() {
+        return mPicker.getValue();
+    }
+
+    @Override
+    public void setValue(int value) {
+        mPicker.setValue(value);
+    }
+
+    @Override
+    public boolean getWrapSelectorWheel() {
+        return mPicker.getWrapSelectorWheel();
+    }
+
+    @Override
+    public void setWrapSelectorWheel(boolean wrapSelectorWheel) {
+        mPicker.setWrapSelectorWheel(wrapSelectorWheel);
+    }
+
+    @Override
+    public String[] getDisplayedValues() {
+        return mPicker.getDisplayedValues();
+    }
+
+    @Override
+    public void setDisplayedValues(String[] displayedValues) {
+        mPicker.setDisplayedValues(displayedValues);
+    }
+
+    @Override
+    public void setFormatter(NumberPicker.Formatter formatter) {
+        mPicker.setFormatter(formatter);
+    }
+
+    @Override
+    public void setInputParser(InputParser inputParser) {
+        mInputParser = inputParser;
+    }
+
+    @Override
+    public void setOnLongPressUpdateInterval(long intervalMillis) {
+        mPicker.setOnLongPressUpdateInterval(intervalMillis);
+    }
+
+    @Override
+    public void setOnValueChangedListener(OnValueChangeListener onValueChangedListener) {
+        mPicker.setOnValueChangedListener(onValueChangedListener == null ? null
+                : (picker, oldVal, newVal) -> onValueChangedListener.onValueChange(this, oldVal, newVal));
+    }
+
+    @Override
+    public void setOnScrollListener(OnScrollListener onScrollListener) {
+        mPicker.setOnScrollListener(onScrollListener == null ? null
+                : (view, scrollState) -> onScrollListener.onScrollStateChange(this, scrollState));
+    }
+
+    @Override
+    public void setImeOptions(int imeOptions) {
+        if (mInput != null) {
+            mInput.setImeOptions(imeOptions);
+        }
+    }
+
+    @Override
+    public void setRawInputType(int type) {
+        if (mInput != null) {
+            mInput.setRawInputType(type);
+        }
+    }
+
+    @Override
+    public EditText getInput() {
+        return mInput;
+    }
+}
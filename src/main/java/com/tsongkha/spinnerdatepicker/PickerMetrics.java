@@ -0,0 +1,38 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * Receives what a {@link SpinnerDatePickerDialog} costs at runtime, for reporting percentiles
+ * from real devices. Set it with {@link SpinnerDatePickerDialogBuilder#metrics(PickerMetrics)}.
+ *
+ * All times are in nanoseconds. Callbacks run on the main thread in the middle of building,
+ * drawing or scrolling the picker, so they should only record the numbers.
+ */
+public interface PickerMetrics {
+
+    /**
+     * Called when the builder creates a new dialog. Dialogs reused from a
+     * {@link SpinnerDatePickerDialogPool} are not reported.
+     *
+     * @param inflationNanos The time spent inflating the dialog and its spinners.
+     * @param reorderNanos   The time spent ordering the spinners for the locale.
+     */
+    void onDialogCreated(long inflationNanos, long reorderNanos);
+
+    /**
+     * Called when the picker is first drawn after {@link SpinnerDatePickerDialogBuilder#build()}.
+     *
+     * @param nanosSinceBuild The time since build() was called.
+     */
+    void onFirstDraw(long nanosSinceBuild);
+
+    /**
+     * Called after a spinner value change has been handled.
+     *
+     * @param latencyNanos  The time from the change listener through updating the spinners
+     *                      and notifying the date change.
+     * @param notifications The number of {@link OnDateChangedListener} calls made, which is 0
+     *                      when changes are coalesced into the next frame.
+     * @param relayouts     The number of layout requests the change caused in the picker.
+     */
+    void onValueChanged(long latencyNanos, int notifications, int relayouts);
+}
@@ -0,0 +1,111 @@
+package com.tsongkha.spinnerdatepicker;
+
+/**
+ * The saved state of a picker as a record of four ints, written to a {@code Parcel} by
+ * {@link SpinnerDatePicker} and to a {@code Bundle} by {@link SpinnerDatePickerDialog}.
+ *
+ * The first int holds the version in its top byte and the flags below it. The current, min
+ * and max dates follow as days since 1970-01-01. A record of another version is not restored.
+ */
+final class PickerState {
+
+    static final int VERSION = 1;
+
+    static final int FLAG_DAY_SHOWN = 1;
+
+    static final int FLAG_YEAR_SHOWN = 1 << 1;
+
+    /**
+     * Set by the dialog, not the picker.
+     */
+    static final int FLAG_TITLE_SHOWN = 1 << 2;
+
+    private static final int VERSION_SHIFT = 24;
+
+    private static final int HEADER = 0;
+
+    private static final int CURRENT_DATE = 1;
+
+    private static final int MIN_DATE = 2;
+
+    private static final int MAX_DATE = 3;
+
+    private static final int SIZE = 4;
+
+    private PickerState() {
+    }
+
+    /**
+     * Packs the given Gregorian dates.
+     */
+    static int[] create(int currentDate,
+                        int minDate,
+                        int maxDate,
+                        boolean isDayShown,
+                        boolean isYearShown) {
+        final int[] record = new int[SIZE];
+        record[HEADER] = VERSION << VERSION_SHIFT | (isDayShown ? FLAG_DAY_SHOWN : 0)
+                | (isYearShown ? FLAG_YEAR_SHOWN : 0);
+        record[CURRENT_DATE] = Dates.toEpochDay(currentDate);
+        record[MIN_DATE] = Dates.toEpochDay(minDate);
+        record[MAX_DATE] = Dates.toEpochDay(maxDate);
+        return record;
+    }
+
+    /**
+     * Packs the state of a model and the given extra flags.
+     */
+    static int[] save(DateSelectionModel model, int flags) {
+        if (model.isDayShown()) {
+            flags |= FLAG_DAY_SHOWN;
+        }
+        if (model.isYearShown()) {
+            flags |= FLAG_YEAR_SHOWN;
+        }
+        final int[] record = new int[SIZE];
+        record[HEADER] = VERSION << VERSION_SHIFT | flags;
+        record[CURRENT_DATE] = Dates.toEpochDay(model.getDate());
+        record[MIN_DATE] = Dates.toEpochDay(model.getMinDate());
+        record[MAX_DATE] = Dates.toEpochDay(model.getMaxDate());
+        return record;
+    }
+
+    /**
+     * Puts a record back into a model in one pass.
+     *
+     * @return Whether the record could be read.
+     */
+    static boolean restore(int[] record, DateSelectionModel model) {
+        if (!isValid(record)) {
+            return false;
+        }
+        final int flags = flags(record);
+        model.restore(Dates.fromEpochDay(record[CURRENT_DATE]),
+                Dates.fromEpochDay(record[MIN_DATE]), Dates.fromEpochDay(record[MAX_DATE]),
+                (flags & FLAG_DAY_SHOWN) != 0, (flags & FLAG_YEAR_SHOWN) != 0);
+        return true;
+    }
+
+    /**
+     * Reads the current date of a valid record.
+     */
+    static int getCurrentDate(int[] record) {
+        return Dates.fromEpochDay(record[CURRENT_DATE]);
+    }
+
+    /**
+     * Replaces the current date of a valid record in place.
+     */
+    static void setCurrentDate(int[] record, int date) {
+        record[CURRENT_DATE] = Dates.toEpochDay(date);
+    }
+
+    static boolean isValid(int[] record) {
+        return record != null && record.length == SIZE
+                && record[HEADER] >>> VERSION_SHIFT == VERSION;
+    }
+
+    static int flags(int[] record) {
+        return record[HEADER] & ((1 << VERSION_SHIFT) - 1);
+    }
+}
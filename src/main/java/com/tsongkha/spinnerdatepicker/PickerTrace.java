@@ -0,0 +1,42 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.os.Trace;
+
+/**
+ * {@link Trace} sections around the costly parts of the picker, so that they show up in
+ * system traces.
+ *
+ * Sections are only emitted when the library is built with {@code -PpickerTrace=true}.
+ * Otherwise {@link #ENABLED} is a false constant and the calls compile down to nothing.
+ */
+final class PickerTrace {
+
+    static final boolean ENABLED = BuildConfig.PICKER_TRACE;
+
+    static final String INFLATE = "SpinnerDatePicker#inflate";
+
+    static final String REORDER_SPINNERS = "SpinnerDatePicker#reorderSpinners";
+
+    static final String RELOCALIZE = "SpinnerDatePicker#relocalize";
+
+    static final String VALUE_CHANGE = "SpinnerDatePicker#onValueChange";
+
+    static final String UPDATE_SPINNERS = "SpinnerDatePicker#updateSpinners";
+
+    static final String NOTIFY_DATE_CHANGED = "SpinnerDatePicker#notifyDateChanged";
+
+    private PickerTrace() {
+    }
+
+    static void beginSection(String sectionName) {
+        if (ENABLED) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    static void endSection() {
+        if (ENABLED) {
+            Trace.endSection();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.util.Locale;
+
+/**
+ * The Solar Hijri calendar, with the 33 year leap cycle ICU's {@code PersianCalendar} uses.
+ *
+ * The first six months have 31 days, the next five 30 and Esfand 29, or 30 in a leap year.
+ * Month starts and the month of every day of the year come from tables, so a conversion is a
+ * few multiplications and two lookups.
+ */
+final class SolarHijriCalendarSystem extends CalendarSystem {
+
+    /**
+     * The day the leap cycle counts years from, so that 1 Farvardin 1403 is 20 March 2024.
+     */
+    private static final int EPOCH_DAY = -492268;
+
+    private static final int[] MONTH_STARTS = {
+            0, 31, 62, 93, 124, 155, 186, 216, 246, 276, 306, 336
+    };
+
+    private static final byte[] MONTH_OF_DAY = new byte[366];
+
+    static {
+        for (int month = 0, day = 0; day < MONTH_OF_DAY.length; day++) {
+            if (month < MONTH_STARTS.length - 1 && day == MONTH_STARTS[month + 1]) {
+                month++;
+            }
+            MONTH_OF_DAY[day] = (byte) month;
+        }
+    }
+
+    private static final String[] MONTH_NAMES = {
+            "Farvardin", "Ordibehesht", "Khordad", "Tir", "Mordad", "Shahrivar",
+            "Mehr", "Aban", "Azar", "Dey", "Bahman", "Esfand"
+    };
+
+    private static final String[] MONTH_NAMES_FA = {
+            "\u0641\u0631\u0648\u0631\u062f\u06cc\u0646",
+            "\u0627\u0631\u062f\u06cc\u0628\u0647\u0634\u062a",
+            "\u062e\u0631\u062f\u0627\u062f",
+            "\u062a\u06cc\u0631",
+            "\u0645\u0631\u062f\u0627\u062f",
+            "\u0634\u0647\u0631\u06cc\u0648\u0631",
+            "\u0645\u0647\u0631",
+            "\u0622\u0628\u0627\u0646",
+            "\u0622\u0630\u0631",
+            "\u062f\u06cc",
+            "\u0628\u0647\u0645\u0646",
+            "\u0627\u0633\u0641\u0646\u062f"
+    };
+
+    @Override
+    public int getMonthsInYear(int year) {
+        return Dates.MONTHS_PER_YEAR;
+    }
+
+    @Override
+    public int getDaysInMonth(int year, int month) {
+        if (month < 6) {
+            return 31;
+        } else if (month < 11) {
+            return 30;
+        }
+        return isLeapYear(year) ? 30 : 29;
+    }
+
+    @Override
+    public int toEpochDay(int year, int month, int dayOfMonth) {
+        return yearStart(year) + MONTH_STARTS[month] + dayOfMonth - 1;
+    }
+
+    @Override
+    public int fromEpochDay(int epochDay) {
+        final long days = (long) epochDay - EPOCH_DAY;
+        final int year = (int) (1 + floorDiv(33 * days + 3, 12053));
+        final int dayOfYear = epochDay - yearStart(year);
+        final int month = MONTH_OF_DAY[dayOfYear];
+        return date(year, month, dayOfYear - MONTH_STARTS[month] + 1);
+    }
+
+    @Override
+    public String[] getMonthNames(Locale locale) {
+        return "fa".equals(locale.getLanguage()) ? MONTH_NAMES_FA : MONTH_NAMES;
+    }
+
+    @Override
+    boolean labelsYearsWithDigits() {
+        return true;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return floorMod(25L * year + 11, 33) < 8;
+    }
+
+    private static int yearStart(int year) {
+        return (int) (EPOCH_DAY + 365L * (year - 1) + floorDiv(8L * year + 21, 33));
+    }
+
+    // Math.floorDiv and Math.floorMod are only available from API 24.
+    private static long floorDiv(long x, long y) {
+        final long q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+
+    private static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
@@ -16,178 +16,417 @@ package com.tsongkha.spinnerdatepicker;
  * limitations under the License.
  */
 
-import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.os.SystemClock;
+import android.text.Editable;
 import android.text.InputType;
+import android.text.TextWatcher;
 import android.text.format.DateFormat;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.ContextThemeWrapper;
+import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
 import android.view.inputmethod.EditorInfo;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.EditText;
 import android.widget.FrameLayout;
-import android.widget.LinearLayout;
 import android.widget.NumberPicker;
-import android.widget.NumberPicker.OnValueChangeListener;
-import android.widget.TextView;
 
-import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.concurrent.Executor;
 
 /**
  * A delegate implementing the basic DatePicker
+ *
+ * Besides living in {@link SpinnerDatePickerDialog}, a picker can be placed in a layout, where
+ * the {@code spinnerTheme}, {@code wheelSpinners}, {@code showDaySpinner} and
+ * {@code showYearSpinner} attributes configure it. A picker in a list row is recycled across
+ * items with {@link #bind(int[], OnDateChangedListener)} and {@link #unbind()}, which keep
+ * its spinners and their order.
+ *
+ * With typed entry on, a field above the spinners takes a whole date, see
+ * {@link DateEntryParser}. With the decade spinner on, a wheel of decades next to the year
+ * spinner moves the year ten at a time.
  */
-@SuppressLint("ViewConstructor")
 @SuppressWarnings("deprecation")
 public class SpinnerDatePicker extends FrameLayout {
 
     private static final boolean DEFAULT_ENABLED_STATE = true;
 
-    public static final int KNOWN_LEAP_YEAR = 2000;
+    public static final int KNOWN_LEAP_YEAR = DateSelectionModel.KNOWN_LEAP_YEAR;
+
+    static final int DEFAULT_MIN_DATE = Dates.of(1900, 0, 1);
+
+    static final int DEFAULT_MAX_DATE = Dates.of(2100, 0, 1);
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * The least time between two announcements of the date while a spinner scrolls, about
+     * what it takes to speak one.
+     */
+    private static final long ANNOUNCEMENT_INTERVAL_MILLIS = 500;
+
+    private final DatePickerLayout mPickerContainer;
+
+    /**
+     * Created when the day is first shown, like {@link #mYearSpinner}.
+     */
+    private DateSpinner mDaySpinner;
+
+    private DateSpinner mMonthSpinner;
+
+    private DateSpinner mYearSpinner;
+
+    /**
+     * Created when first shown, next to the year spinner. Its values index
+     * {@link #mDecadeLabels}.
+     */
+    private DateSpinner mDecadeSpinner;
 
-    private final LinearLayout mPickerContainer;
+    private boolean mIsDecadeSpinnerShown;
 
-    private NumberPicker mDaySpinner;
+    private boolean mIsDecadeScrolling;
 
-    private NumberPicker mMonthSpinner;
+    private String[] mDecadeLabels;
 
-    private NumberPicker mYearSpinner;
+    private int mDecadeMinYear;
 
-    private final EditText mDaySpinnerInput;
+    private int mDecadeMaxYear;
 
-    private final EditText mMonthSpinnerInput;
+    private final LayoutInflater mInflater;
 
-    private final EditText mYearSpinnerInput;
+    private final boolean mUseWheels;
+
+    private final DateSpinner.OnValueChangeListener mOnValueChangeListener;
+
+    private final DateSpinner.OnScrollListener mOnScrollListener;
+
+    private final YearFormatter mYearFormatter;
+
+    private final TwoDigitFormatter mDayFormatter = new TwoDigitFormatter();
 
     private OnDateChangedListener mOnDateChangedListener;
 
-    private String[] mShortMonths;
+    private DateValidation mValidation;
+
+    private int[] mBoundState;
 
-    private int mNumberOfMonths;
+    private DateEntryParser mEntryParser;
 
-    private Calendar mTempDate;
+    private EditText mEntryField;
 
-    private Calendar mMinDate;
+    private LocaleData mLocaleData;
 
-    private Calendar mMaxDate;
+    private String[] mMonthNames;
 
-    private Calendar mCurrentDate;
+    private CalendarSystem mMonthNamesCalendar;
+
+    private String[][] mMonthWindows;
+
+    private final InputMethodManager mInputMethodManager;
+
+    private final AccessibilityManager mAccessibilityManager;
+
+    /**
+     * The spoken dates for the locale and shown fields, created on the first announcement.
+     */
+    private TitleCache mSpokenDates;
+
+    private boolean mSpokenDatesShowDay;
+
+    private boolean mSpokenDatesShowYear;
+
+    private boolean mIsScrolling;
+
+    private boolean mIsAnnouncementPending;
+
+    private long mLastAnnouncementMillis;
+
+    private final DateSelectionModel mModel;
 
     private boolean mIsEnabled = DEFAULT_ENABLED_STATE;
 
-    private boolean mIsDayShown = true;
+    private boolean mCoalesceDateChanges;
+
+    private boolean mIsNotificationPending;
+
+    private int mNotifiedDate = NO_DATE;
+
+    private PickerMetrics mMetrics;
+
+    private long mReorderNanos;
+
+    private long mFirstDrawStartNanos;
 
-    private boolean mIsYearShown = true;
+    private int mNotificationCount;
+
+    private int mRelayoutCount;
+
+    private final Choreographer.FrameCallback mNotifyCallback = frameTimeNanos -> {
+        mIsNotificationPending = false;
+        dispatchDateChanged();
+    };
 
     SpinnerDatePicker(ViewGroup root, int numberPickerStyle) {
-        super(root.getContext());
-        Context mContext = root.getContext();
+        this(root, numberPickerStyle, false);
+    }
+
+    /**
+     * @param useWheels Whether to draw the spinners with {@link WheelPicker} instead of
+     *                  {@link NumberPicker}.
+     */
+    SpinnerDatePicker(ViewGroup root, int numberPickerStyle, boolean useWheels) {
+        this(root.getContext(), null, 0, numberPickerStyle, useWheels, false);
+        root.addView(this);
+    }
+
+    public SpinnerDatePicker(Context context) {
+        this(context, null);
+    }
+
+    public SpinnerDatePicker(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public SpinnerDatePicker(Context context, AttributeSet attrs, int defStyleAttr) {
+        this(context, attrs, defStyleAttr, 0, false, true);
+    }
+
+    /**
+     * @param isInline Whether the picker was created on its own rather than for a dialog,
+     *                 which then selects today between the default min and max dates.
+     */
+    private SpinnerDatePicker(Context context,
+                              AttributeSet attrs,
+                              int defStyleAttr,
+                              int numberPickerStyle,
+                              boolean useWheels,
+                              boolean isInline) {
+        super(context, attrs, defStyleAttr);
+        Context mContext = context;
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SpinnerDatePicker,
+                defStyleAttr, 0);
+        numberPickerStyle = a.getResourceId(R.styleable.SpinnerDatePicker_spinnerTheme,
+                numberPickerStyle);
+        useWheels = a.getBoolean(R.styleable.SpinnerDatePicker_wheelSpinners, useWheels);
+        final boolean isDayShown = a.getBoolean(R.styleable.SpinnerDatePicker_showDaySpinner,
+                true);
+        final boolean isYearShown = a.getBoolean(R.styleable.SpinnerDatePicker_showYearSpinner,
+                true);
+        final boolean isTypedEntry = a.getBoolean(R.styleable.SpinnerDatePicker_typedEntry,
+                false);
+        final boolean isDecadeSpinnerShown = a.getBoolean(
+                R.styleable.SpinnerDatePicker_decadeSpinner, false);
+        a.recycle();
 
         // initialization based on locale
         setCurrentLocale(Locale.getDefault());
 
+        // initialize to current date
+        mModel = new DateSelectionModel(Dates.today());
+        mYearFormatter = new YearFormatter(mModel.getYearSpinnerMin(),
+                mModel.getYearSpinnerMax());
+
         LayoutInflater inflater = (LayoutInflater) new ContextThemeWrapper(mContext,
                                                                            numberPickerStyle).getSystemService(
                 Context.LAYOUT_INFLATER_SERVICE);
-        inflater.inflate(R.layout.date_picker_container, this, true);
-
-        mPickerContainer = findViewById(R.id.parent);
-
-        OnValueChangeListener onChangeListener = (picker, oldVal, newVal) -> {
+        mPickerContainer = new DatePickerLayout(mContext);
+        addView(mPickerContainer, new FrameLayout.LayoutParams(LayoutParams.WRAP_CONTENT,
+                LayoutParams.WRAP_CONTENT, Gravity.CENTER_HORIZONTAL));
+        mInputMethodManager = (InputMethodManager) mContext.getSystemService(
+                Context.INPUT_METHOD_SERVICE);
+        mAccessibilityManager = (AccessibilityManager) mContext.getSystemService(
+                Context.ACCESSIBILITY_SERVICE);
+
+        DateSpinner.OnValueChangeListener onChangeListener = (picker, oldVal, newVal) -> {
+            PickerTrace.beginSection(PickerTrace.VALUE_CHANGE);
+            final long startNanos = mMetrics != null ? System.nanoTime() : 0;
+            mNotificationCount = 0;
+            mRelayoutCount = 0;
             updateInputState();
-            mTempDate.set(Calendar.MONTH, mCurrentDate.get(Calendar.MONTH));
-            mTempDate.set(Calendar.DAY_OF_MONTH, mCurrentDate.get(Calendar.DAY_OF_MONTH));
-            if (mIsYearShown) {
-                mTempDate.set(Calendar.YEAR, mCurrentDate.get(Calendar.YEAR));
-            } else {
-                mTempDate.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
-            }
-            // take care of wrapping of days and months to update greater fields
+            clearEntry();
+            // the model takes care of wrapping of days and months to update greater fields
             if (picker == mDaySpinner) {
-                int maxDayOfMonth = mTempDate.getActualMaximum(Calendar.DAY_OF_MONTH);
-                if (oldVal == maxDayOfMonth && newVal == 1) {
-                    mTempDate.add(Calendar.DAY_OF_MONTH, 1);
-                } else if (oldVal == 1 && newVal == maxDayOfMonth) {
-                    mTempDate.add(Calendar.DAY_OF_MONTH, -1);
-                } else {
-                    mTempDate.add(Calendar.DAY_OF_MONTH, newVal - oldVal);
-                }
+                mModel.stepDay(oldVal, newVal);
             } else if (picker == mMonthSpinner) {
-                if (oldVal == 11 && newVal == 0) {
-                    mTempDate.add(Calendar.MONTH, 1);
-                } else if (oldVal == 0 && newVal == 11) {
-                    mTempDate.add(Calendar.MONTH, -1);
-                } else {
-                    mTempDate.add(Calendar.MONTH, newVal - oldVal);
-                }
+                mModel.stepMonth(oldVal, newVal);
             } else if (picker == mYearSpinner) {
-                mTempDate.set(Calendar.YEAR, newVal);
+                mModel.selectYear(mYearFormatter.toYear(newVal));
             } else {
                 throw new IllegalArgumentException();
             }
-            // now set the date to the adjusted one
-            if (mIsYearShown) {
-                setDate(mTempDate.get(Calendar.YEAR), mTempDate.get(Calendar.MONTH),
-                        mTempDate.get(Calendar.DAY_OF_MONTH));
-            } else {
-                setDate(mTempDate.get(Calendar.MONTH), mTempDate.get(Calendar.DAY_OF_MONTH));
-            }
             updateSpinners();
             notifyDateChanged();
+            if (mMetrics != null) {
+                mMetrics.onValueChanged(System.nanoTime() - startNanos, mNotificationCount,
+                        mRelayoutCount);
+            }
+            PickerTrace.endSection();
         };
 
-        // day
-        mDaySpinner = (NumberPicker) inflater.inflate(R.layout.number_picker_day_month,
-                                                      mPickerContainer, false);
-        mDaySpinner.setId(R.id.day);
-        mDaySpinner.setFormatter(new TwoDigitFormatter());
-        mDaySpinner.setOnLongPressUpdateInterval(100);
-        mDaySpinner.setOnValueChangedListener(onChangeListener);
-        mDaySpinnerInput = NumberPickers.findEditText(mDaySpinner);
-
-
-        // month
-        mMonthSpinner = (NumberPicker) inflater.inflate(R.layout.number_picker_day_month,
-                                                        mPickerContainer, false);
-        mMonthSpinner.setId(R.id.month);
-        mMonthSpinner.setMinValue(0);
-        mMonthSpinner.setMaxValue(mNumberOfMonths - 1);
-        mMonthSpinner.setDisplayedValues(mShortMonths);
-        mMonthSpinner.setOnLongPressUpdateInterval(200);
-        mMonthSpinner.setOnValueChangedListener(onChangeListener);
-        mMonthSpinnerInput = NumberPickers.findEditText(mMonthSpinner);
-
-        // year
-        mYearSpinner = (NumberPicker) inflater.inflate(R.layout.number_picker_year,
-                                                       mPickerContainer, false);
-        mYearSpinner.setId(R.id.year);
-        mYearSpinner.setOnLongPressUpdateInterval(100);
-        mYearSpinner.setOnValueChangedListener(onChangeListener);
-        mYearSpinnerInput = NumberPickers.findEditText(mYearSpinner);
+        DateSpinner.OnScrollListener onScrollListener = (view, scrollState) -> {
+            mIsScrolling = scrollState != DateSpinner.OnScrollListener.SCROLL_STATE_IDLE;
+            if (!mIsScrolling) {
+                flushDateChanged();
+                // the settled date, unless the flush just announced it
+                if (mIsAnnouncementPending) {
+                    announceDate();
+                }
+            }
+        };
 
-        // initialize to current date
-        mCurrentDate.setTimeInMillis(System.currentTimeMillis());
-        if (!mIsYearShown) {
-            mCurrentDate.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
+        mInflater = inflater;
+        mUseWheels = useWheels;
+        mOnValueChangeListener = onChangeListener;
+        mOnScrollListener = onScrollListener;
+
+        // month, the day and year spinners are only created once shown, see updateSpinners()
+        mMonthSpinner = createSpinner(R.id.month, false, 200);
+        final int lastMonth = getMonthNames().length - 1;
+        applyRange(mMonthSpinner, 0, lastMonth, true, getMonthWindow(0, lastMonth));
+        if (mLocaleData.numericMonths) {
+            mMonthSpinner.setRawInputType(InputType.TYPE_CLASS_NUMBER);
         }
 
         // re-order the number spinners to match the current date format
+        final long reorderStartNanos = System.nanoTime();
         reorderSpinners();
+        mReorderNanos = System.nanoTime() - reorderStartNanos;
 
         // If not explicitly specified this view is important for accessibility.
         if (getImportantForAccessibility() == View.IMPORTANT_FOR_ACCESSIBILITY_AUTO) {
             setImportantForAccessibility(View.IMPORTANT_FOR_ACCESSIBILITY_YES);
         }
 
-        root.addView(this);
+        if (isInline) {
+            mModel.restore(clamp(Dates.today(), DEFAULT_MIN_DATE, DEFAULT_MAX_DATE),
+                    DEFAULT_MIN_DATE, DEFAULT_MAX_DATE, isDayShown, isYearShown);
+            mNotifiedDate = mModel.getDate();
+            updateSpinners();
+            setTypedEntry(isTypedEntry);
+            setDecadeSpinner(isDecadeSpinnerShown);
+        }
+    }
+
+    /**
+     * Creates the state of a picker to hand to {@link #bind(int[], OnDateChangedListener)},
+     * typically one per list item.
+     *
+     * @param date        The selected date, moved into the range if outside of it.
+     * @param minDate     The earliest selectable date.
+     * @param maxDate     The latest selectable date.
+     * @param isDayShown  Whether the day spinner is shown.
+     * @param isYearShown Whether the year spinner is shown.
+     */
+    public static int[] newState(Calendar date,
+                                 Calendar minDate,
+                                 Calendar maxDate,
+                                 boolean isDayShown,
+                                 boolean isYearShown) {
+        final int min = Dates.of(minDate);
+        final int max = Dates.of(maxDate);
+        if (max < min) throw new IllegalArgumentException("Max date is before Min date");
+        return PickerState.create(clamp(Dates.of(date), min, max), min, max, isDayShown,
+                isYearShown);
+    }
+
+    /**
+     * Gets the selected date of a state created by {@link #newState}.
+     */
+    public static Calendar getStateDate(int[] state) {
+        if (!PickerState.isValid(state)) throw new IllegalArgumentException("Not a picker state");
+        final int date = PickerState.getCurrentDate(state);
+        return new GregorianCalendar(Dates.year(date), Dates.month(date), Dates.day(date));
+    }
+
+    /**
+     * Shows a state created by {@link #newState} and reports changes to it, without
+     * notifying the listener of the bound date. The state is kept up to date with the date
+     * the listener is told about, so {@link #getStateDate} reads the picked date of an item
+     * whether a picker is bound to it or not.
+     */
+    public void bind(int[] state, OnDateChangedListener listener) {
+        if (!PickerState.isValid(state)) throw new IllegalArgumentException("Not a picker state");
+        unbind();
+        restoreState(state);
+        mBoundState = state;
+        mOnDateChangedListener = listener;
+    }
+
+    /**
+     * Writes the selected date back into the bound state and stops reporting changes, so
+     * that this picker can be bound to another item.
+     */
+    public void unbind() {
+        // the state is only written on a notification
+        flushDateChanged();
+        if (mValidation != null) {
+            mValidation.cancel();
+        }
+        mOnDateChangedListener = null;
+        mBoundState = null;
+    }
+
+    private int parseEntry(CharSequence text, boolean isFinished) {
+        final DateEntryParser parser = mEntryParser;
+        parser.setFields(mLocaleData.order, mModel.isDayShown(), mModel.isYearShown());
+        parser.setMonthNames(getMonthNames());
+        parser.setPivotYear(mModel.getYear());
+        return parser.parse(text, isFinished);
+    }
+
+    /**
+     * Selects the parsed date in a single update of the spinners.
+     *
+     * @return Whether the parsed fields made a date.
+     */
+    private boolean commitEntry() {
+        final DateEntryParser parser = mEntryParser;
+        if (!mModel.enterDate(parser.getYear(), parser.getMonth(), parser.getDayOfMonth())) {
+            return false;
+        }
+        if ((updateSpinners() & DateSelectionModel.DIRTY_DATE) != 0) {
+            notifyDateChanged();
+        }
+        return true;
+    }
+
+    private void clearEntry() {
+        if (mEntryField != null && mEntryField.length() > 0) {
+            mEntryField.getText().clear();
+        }
+    }
+
+    /**
+     * Sets the hint and input type of the entry field for the shown fields and the locale.
+     */
+    private void updateEntryField() {
+        final String skeleton = (mModel.isYearShown() ? "yyyy" : "") + "MM"
+                + (mModel.isDayShown() ? "dd" : "");
+        mEntryField.setHint(DateFormat.getBestDateTimePattern(mLocaleData.locale, skeleton));
+        mEntryField.setInputType(mLocaleData.numericMonths
+                ? InputType.TYPE_CLASS_DATETIME | InputType.TYPE_DATETIME_VARIATION_DATE
+                : InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
+    }
+
+    private static int clamp(int date, int min, int max) {
+        return date < min ? min : date > max ? max : date;
     }
 
     void init(int year,
@@ -196,12 +435,10 @@ public class SpinnerDatePicker extends FrameLayout {
               boolean isDayShown,
               boolean isYearShown,
               OnDateChangedListener onDateChangedListener) {
-        mIsDayShown = isDayShown;
-        mIsYearShown = isYearShown;
-        setDate(year, monthOfYear, dayOfMonth);
+        mModel.init(year, monthOfYear, dayOfMonth, isDayShown, isYearShown);
         updateSpinners();
         mOnDateChangedListener = onDateChangedListener;
-        notifyDateChanged();
+        notifyInitialDate();
     }
 
     void init(int monthOfYear,
@@ -209,89 +446,259 @@ public class SpinnerDatePicker extends FrameLayout {
               boolean isDayShown,
               boolean isYearShown,
               OnDateChangedListener onDateChangedListener) {
-        mIsDayShown = isDayShown;
-        mIsYearShown = isYearShown;
-        setDate(monthOfYear, dayOfMonth);
+        mModel.init(monthOfYear, dayOfMonth, isDayShown, isYearShown);
         updateSpinners();
         mOnDateChangedListener = onDateChangedListener;
-        notifyDateChanged();
+        notifyInitialDate();
     }
 
     void updateDate(int year, int month, int dayOfMonth) {
-        if (!isNewDate(year, month, dayOfMonth)) {
+        if (!mModel.updateDate(year, month, dayOfMonth)) {
             return;
         }
-        setDate(year, month, dayOfMonth);
         updateSpinners();
         notifyDateChanged();
     }
 
     void updateDate(int month, int dayOfMonth) {
-        if (!isNewDate(month, dayOfMonth)) {
+        if (!mModel.updateDate(month, dayOfMonth)) {
             return;
         }
-        setDate(month, dayOfMonth);
         updateSpinners();
         notifyDateChanged();
     }
 
-    int getYear() {
-        return mCurrentDate.get(Calendar.YEAR);
+    /**
+     * The selected year, or {@link #KNOWN_LEAP_YEAR} while the year spinner is hidden.
+     */
+    public int getYear() {
+        return Dates.year(mModel.getDate());
     }
 
-    int getMonth() {
-        return mCurrentDate.get(Calendar.MONTH);
+    /**
+     * The selected month (0-11) for compatibility with {@link Calendar}.
+     */
+    public int getMonth() {
+        return Dates.month(mModel.getDate());
     }
 
-    int getDayOfMonth() {
-        return mCurrentDate.get(Calendar.DAY_OF_MONTH);
+    public int getDayOfMonth() {
+        return Dates.day(mModel.getDate());
     }
 
-    void setMinDate(Calendar minDate) {
-        mTempDate.set(Calendar.MONTH, minDate.get(Calendar.MONTH));
-        mTempDate.set(Calendar.DAY_OF_MONTH, minDate.get(Calendar.DAY_OF_MONTH));
-        mTempDate.set(Calendar.YEAR, minDate.get(Calendar.YEAR));
-        if (mTempDate.get(Calendar.YEAR) == mMinDate.get(Calendar.YEAR)
-                && mTempDate.get(Calendar.DAY_OF_YEAR) == mMinDate.get(Calendar.DAY_OF_YEAR)) {
-            // Same day, no-op.
-            return;
-        }
-        mMinDate.set(Calendar.MONTH, minDate.get(Calendar.MONTH));
-        mMinDate.set(Calendar.DAY_OF_MONTH, minDate.get(Calendar.DAY_OF_MONTH));
-        mMinDate.set(Calendar.YEAR, minDate.get(Calendar.YEAR));
-        if (mCurrentDate.before(mMinDate)) {
-            mCurrentDate.set(Calendar.MONTH, mMinDate.get(Calendar.MONTH));
-            mCurrentDate.set(Calendar.DAY_OF_MONTH, mMinDate.get(Calendar.DAY_OF_MONTH));
-            mCurrentDate.set(Calendar.YEAR, mMinDate.get(Calendar.YEAR));
+    /**
+     * Sets the earliest selectable date, moving the selected date into the range without
+     * notifying the listener.
+     */
+    public void setMinDate(Calendar minDate) {
+        mModel.setMinDate(Dates.of(minDate));
+        updateSpinners();
+    }
+
+    /**
+     * Sets the latest selectable date, moving the selected date into the range without
+     * notifying the listener.
+     */
+    public void setMaxDate(Calendar maxDate) {
+        mModel.setMaxDate(Dates.of(maxDate));
+        updateSpinners();
+    }
+
+    /**
+     * Sets both ends of the date range with a single spinner update, so a range that moves
+     * past the current one is never inverted in between.
+     *
+     * @param min The packed min date, see {@link Dates}.
+     * @param max The packed max date.
+     */
+    void setDateRange(int min, int max) {
+        mModel.setDateRange(min, max);
+        updateSpinners();
+    }
+
+    DateSelectionModel getModel() {
+        return mModel;
+    }
+
+    /**
+     * Renders changes made to the model from outside of this picker, notifying the listener
+     * if they moved the date.
+     */
+    void syncWithModel() {
+        if ((updateSpinners() & DateSelectionModel.DIRTY_DATE) != 0) {
+            notifyDateChanged();
         }
+    }
+
+    /**
+     * Sets the dates that cannot be selected, moving the selection off a date that becomes
+     * disabled.
+     */
+    void setDisabledDates(DisabledDates disabledDates) {
+        mModel.setDisabledDates(disabledDates);
         updateSpinners();
     }
 
-    void setMaxDate(Calendar maxDate) {
-        mTempDate.set(Calendar.MONTH, maxDate.get(Calendar.MONTH));
-        mTempDate.set(Calendar.DAY_OF_MONTH, maxDate.get(Calendar.DAY_OF_MONTH));
-        mTempDate.set(Calendar.YEAR, maxDate.get(Calendar.YEAR));
-        if (mTempDate.get(Calendar.YEAR) == mMaxDate.get(Calendar.YEAR)
-                && mTempDate.get(Calendar.DAY_OF_YEAR) == mMaxDate.get(Calendar.DAY_OF_YEAR)) {
-            // Same day, no-op.
-            return;
+    /**
+     * Shows or hides the day and year spinners, creating them the first time they are shown.
+     * Setting this before anything else keeps a dialog from creating a spinner it hides.
+     */
+    void setFieldsShown(boolean isDayShown, boolean isYearShown) {
+        mModel.setFieldsShown(isDayShown, isYearShown);
+        updateSpinners();
+    }
+
+    /**
+     * Shows or hides a field above the spinners to type a whole date into, in the order the
+     * spinners are laid out. A date is committed as soon as its last field cannot take more
+     * input, or else with the IME action.
+     */
+    void setTypedEntry(boolean isTypedEntry) {
+        if (isTypedEntry && mEntryField == null) {
+            mEntryParser = new DateEntryParser();
+            mEntryField = new EditText(getContext());
+            mEntryField.setSingleLine();
+            mEntryField.setImeOptions(EditorInfo.IME_ACTION_DONE);
+            mEntryField.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                }
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                }
+
+                @Override
+                public void afterTextChanged(Editable s) {
+                    if (parseEntry(s, false) == DateEntryParser.COMPLETE) {
+                        commitEntry();
+                    }
+                }
+            });
+            mEntryField.setOnEditorActionListener((v, actionId, event) -> {
+                if (parseEntry(v.getText(), true) == DateEntryParser.COMPLETE && commitEntry()) {
+                    // let the IME close
+                    return false;
+                }
+                mEntryField.setError(getContext().getText(R.string.date_entry_invalid));
+                return true;
+            });
+            mPickerContainer.setHeader(mEntryField);
+            updateEntryField();
         }
-        mMaxDate.set(Calendar.MONTH, maxDate.get(Calendar.MONTH));
-        mMaxDate.set(Calendar.DAY_OF_MONTH, maxDate.get(Calendar.DAY_OF_MONTH));
-        mMaxDate.set(Calendar.YEAR, maxDate.get(Calendar.YEAR));
-        if (mCurrentDate.before(mMaxDate)) {
-            mCurrentDate.set(Calendar.MONTH, mMaxDate.get(Calendar.MONTH));
-            mCurrentDate.set(Calendar.DAY_OF_MONTH, mMaxDate.get(Calendar.DAY_OF_MONTH));
-            mCurrentDate.set(Calendar.YEAR, mMaxDate.get(Calendar.YEAR));
+        if (mEntryField != null) {
+            clearEntry();
+            final int visibility = isTypedEntry ? View.VISIBLE : View.GONE;
+            if (mEntryField.getVisibility() != visibility) {
+                mEntryField.setVisibility(visibility);
+                mPickerContainer.invalidateMeasurement();
+            }
         }
+    }
+
+    /**
+     * Shows or hides a spinner of decades next to the year spinner, while the year is shown.
+     * Turning it moves the year by whole decades, keeping its place in the decade, and a drag
+     * or fling only moves the year once it settles, as a single change.
+     */
+    void setDecadeSpinner(boolean isShown) {
+        if (isShown == mIsDecadeSpinnerShown) {
+            return;
+        }
+        mIsDecadeSpinnerShown = isShown;
+        // the decade spinner follows the year range and value, which may have changed since
+        mModel.invalidate();
         updateSpinners();
     }
 
+    /**
+     * Validates every date the listener is told about on an executor, see
+     * {@link DateValidator}. A null validator turns validation off.
+     *
+     * @param listener Told on the main thread whenever {@link #isDateValid()} may have changed.
+     */
+    void setDateValidator(DateValidator validator,
+                          Executor executor,
+                          DateValidation.Listener listener) {
+        if (mValidation != null) {
+            mValidation.cancel();
+        }
+        mValidation = validator != null
+                ? new DateValidation(this, validator, executor, listener) : null;
+        if (mValidation != null) {
+            mValidation.request(mModel.getDate());
+        }
+    }
+
+    /**
+     * Whether the selected date passed validation, always true without a validator. A date
+     * that is still being validated is not valid yet.
+     */
+    boolean isDateValid() {
+        return mValidation == null || mValidation.isValid();
+    }
+
+    /**
+     * Sets whether date changes are coalesced into at most one notification per frame.
+     *
+     * When enabled, intermediate dates passed over during a fling or a long press are folded
+     * into a single {@link OnDateChangedListener} call on the next frame, dates that did not
+     * actually change are not reported, and the settled date is always delivered when the
+     * spinners stop scrolling.
+     */
+    void setCoalesceDateChanges(boolean coalesceDateChanges) {
+        if (!coalesceDateChanges) {
+            flushDateChanged();
+        }
+        mCoalesceDateChanges = coalesceDateChanges;
+    }
+
+    /**
+     * Reports the costs of this picker to the given metrics, if any, counting the time to the
+     * next draw from {@code firstDrawStartNanos}.
+     */
+    void setMetrics(PickerMetrics metrics, long firstDrawStartNanos) {
+        mMetrics = metrics;
+        mFirstDrawStartNanos = metrics != null ? firstDrawStartNanos : 0;
+    }
+
+    /**
+     * The time spent in {@link #reorderSpinners()} while constructing this picker.
+     */
+    long getReorderNanos() {
+        return mReorderNanos;
+    }
+
+    @Override
+    public void requestLayout() {
+        mRelayoutCount++;
+        super.requestLayout();
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        if (mFirstDrawStartNanos != 0) {
+            final long nanosSinceStart = System.nanoTime() - mFirstDrawStartNanos;
+            mFirstDrawStartNanos = 0;
+            if (mMetrics != null) {
+                mMetrics.onFirstDraw(nanosSinceStart);
+            }
+        }
+    }
+
     @Override
     public void setEnabled(boolean enabled) {
-        mDaySpinner.setEnabled(enabled);
-        mMonthSpinner.setEnabled(enabled);
-        mYearSpinner.setEnabled(enabled);
+        if (mDaySpinner != null) {
+            mDaySpinner.getView().setEnabled(enabled);
+        }
+        mMonthSpinner.getView().setEnabled(enabled);
+        if (mYearSpinner != null) {
+            mYearSpinner.getView().setEnabled(enabled);
+        }
+        if (mDecadeSpinner != null) {
+            mDecadeSpinner.getView().setEnabled(enabled);
+        }
         mIsEnabled = enabled;
     }
 
@@ -300,9 +707,15 @@ public class SpinnerDatePicker extends FrameLayout {
         return mIsEnabled;
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        flushDateChanged();
+        super.onDetachedFromWindow();
+    }
+
     @Override
     public void onConfigurationChanged(Configuration newConfig) {
-        setCurrentLocale(newConfig.locale);
+        relocalize(newConfig.locale);
     }
 
     @Override
@@ -311,58 +724,127 @@ public class SpinnerDatePicker extends FrameLayout {
         return true;
     }
 
+    @Override
+    public void onPopulateAccessibilityEvent(AccessibilityEvent event) {
+        super.onPopulateAccessibilityEvent(event);
+        event.getText().add(getSpokenDate());
+    }
+
+    /**
+     * Sends the selected date to the accessibility services, if any are enabled. While a
+     * spinner scrolls, dates are announced at most once per
+     * {@link #ANNOUNCEMENT_INTERVAL_MILLIS} and the rest wait for the scroll to settle.
+     */
+    private void announceDate() {
+        if (mAccessibilityManager == null || !mAccessibilityManager.isEnabled()) {
+            mIsAnnouncementPending = false;
+            return;
+        }
+        final long now = SystemClock.uptimeMillis();
+        if (mIsScrolling && now - mLastAnnouncementMillis < ANNOUNCEMENT_INTERVAL_MILLIS) {
+            mIsAnnouncementPending = true;
+            return;
+        }
+        mIsAnnouncementPending = false;
+        mLastAnnouncementMillis = now;
+        sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SELECTED);
+    }
+
+    /**
+     * Gets the selected date as spoken, with the fields the spinners show. The formatted
+     * dates are kept, so scrolling back and forth formats each of them once.
+     */
+    private String getSpokenDate() {
+        final boolean isDayShown = mModel.isDayShown();
+        final boolean isYearShown = mModel.isYearShown();
+        if (mSpokenDates == null || mSpokenDatesShowDay != isDayShown
+                || mSpokenDatesShowYear != isYearShown) {
+            final Locale locale = mLocaleData.locale;
+            final String skeleton = (isYearShown ? "yyyy" : "") + "MMMM"
+                    + (isDayShown ? "d" : "");
+            mSpokenDates = new TitleCache(new SimpleDateFormat(
+                    DateFormat.getBestDateTimePattern(locale, skeleton), locale));
+            mSpokenDatesShowDay = isDayShown;
+            mSpokenDatesShowYear = isYearShown;
+        }
+        return mSpokenDates.format(getYear(), getMonth(), getDayOfMonth());
+    }
+
     /**
      * Sets the current locale.
      *
      * @param locale The current locale.
      */
     protected void setCurrentLocale(Locale locale) {
-        mTempDate = getCalendarForLocale(mTempDate, locale, mIsYearShown);
-        mMinDate = getCalendarForLocale(mMinDate, locale, mIsYearShown);
-        mMaxDate = getCalendarForLocale(mMaxDate, locale, mIsYearShown);
-        mCurrentDate = getCalendarForLocale(mCurrentDate, locale, mIsYearShown);
-
-        mNumberOfMonths = mTempDate.getActualMaximum(Calendar.MONTH) + 1;
-        mShortMonths = new DateFormatSymbols().getShortMonths();
-
-        if (usingNumericMonths()) {
-            // We're in a locale where a date should either be all-numeric, or all-text.
-            // All-text would require custom NumberPicker formatters for day and year.
-            mShortMonths = new String[mNumberOfMonths];
-            for (int i = 0; i < mNumberOfMonths; ++i) {
-                mShortMonths[i] = String.format(Locale.ROOT, "%d", i + 1);
-            }
-        }
+        mLocaleData = LocaleData.get(locale);
+        mMonthNames = null;
+        mSpokenDates = null;
     }
 
     /**
-     * Tests whether the current locale is one where there are no real month names,
-     * such as Chinese, Japanese, or Korean locales.
+     * Brings the spinner order, month names and digits in line with a locale, keeping the
+     * selected date and without notifying the listener. Nothing is done when the locale lays
+     * out and labels the spinners like the current one.
+     *
+     * @return Whether anything changed.
      */
-    private boolean usingNumericMonths() {
-        return Character.isDigit(mShortMonths[Calendar.JANUARY].charAt(0));
+    boolean relocalize(Locale locale) {
+        final LocaleData oldData = mLocaleData;
+        final LocaleData newData = LocaleData.get(locale);
+        if (newData.looksLike(oldData)) {
+            return false;
+        }
+        PickerTrace.beginSection(PickerTrace.RELOCALIZE);
+        setCurrentLocale(locale);
+        if (!Arrays.equals(oldData.order, newData.order)) {
+            reorderSpinners();
+        }
+        if (oldData.zeroDigit != newData.zeroDigit
+                || !oldData.beforeEraName.equals(newData.beforeEraName)) {
+            mDayFormatter.setLocale(locale);
+            mYearFormatter.setLocale(locale);
+            // setting a formatter again is what makes the spinners drop their cached labels
+            relabel(mDaySpinner, mDayFormatter);
+            relabel(mYearSpinner, mYearFormatter);
+            mDecadeLabels = null;
+        }
+        // the month windows were dropped with the old locale, so every range gets reapplied,
+        // along with the hint of the entry field
+        mModel.invalidate();
+        updateSpinners();
+        // the new labels have other widths, so the measured size no longer holds
+        mPickerContainer.invalidateMeasurement();
+        // new month names reset the input type of a NumberPicker, so this comes after them
+        mMonthSpinner.setRawInputType(newData.numericMonths ? InputType.TYPE_CLASS_NUMBER
+                : InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_NO_SUGGESTIONS);
+        PickerTrace.endSection();
+        return true;
     }
 
     /**
-     * Gets a calendar for locale bootstrapped with the value of a given calendar.
-     *  @param oldCalendar The old calendar.
-     * @param locale      The locale.
-     * @param isYearShown Is the year spinner shown
+     * Sets the calendar the spinners count in while the year is shown, keeping the selected
+     * date and without notifying the listener.
      */
-    private Calendar getCalendarForLocale(Calendar oldCalendar, Locale locale, boolean isYearShown) {
-        if (oldCalendar == null) {
-            return Calendar.getInstance(locale);
-        } else {
-            Calendar newCalendar = Calendar.getInstance(locale);
-            newCalendar.set(Calendar.MONTH, oldCalendar.get(Calendar.MONTH));
-            newCalendar.set(Calendar.DAY_OF_MONTH, oldCalendar.get(Calendar.DAY_OF_MONTH));
-            if (isYearShown) {
-                newCalendar.set(Calendar.YEAR, oldCalendar.get(Calendar.YEAR));
-            } else {
-                newCalendar.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
-            }
-            return newCalendar;
+    void setCalendarSystem(CalendarSystem calendar) {
+        // a pooled dialog is rebound to the same calendar on every build
+        if (calendar == mModel.getCalendarSystem()) {
+            return;
         }
+        mModel.setCalendarSystem(calendar);
+        mYearFormatter.setCalendarSystem(calendar);
+        relabel(mYearSpinner, mYearFormatter);
+        mDecadeLabels = null;
+        mModel.invalidate();
+        updateSpinners();
+    }
+
+    private static void relabel(DateSpinner spinner, NumberPicker.Formatter formatter) {
+        if (spinner == null) {
+            // labelled when created
+            return;
+        }
+        spinner.setFormatter(null);
+        spinner.setFormatter(formatter);
     }
 
     /**
@@ -371,127 +853,342 @@ public class SpinnerDatePicker extends FrameLayout {
      * to the current locale's default format.
      */
     private void reorderSpinners() {
-        mPickerContainer.removeAllViews();
-        // We use numeric spinners for year and day, but textual months. Ask icu4c what
-        // order the user's locale uses for that combination. http://b/7207103.
-        String pattern;
-        pattern = DateFormat.getBestDateTimePattern(Locale.getDefault(), "yyyyMMMdd");
-        char[] order = ICU.getDateFormatOrder(pattern);
-        final int spinnerCount = order.length;
-        for (int i = 0; i < spinnerCount; i++) {
-            switch (order[i]) {
+        PickerTrace.beginSection(PickerTrace.REORDER_SPINNERS);
+        mPickerContainer.removeSpinners();
+        char[] order = mLocaleData.order;
+        // spinners that were never shown are not there yet
+        final int spinnerCount = 1 + (mDaySpinner != null ? 1 : 0)
+                + (mYearSpinner != null ? 1 : 0) + (mDecadeSpinner != null ? 1 : 0);
+        int spinnerIndex = 0;
+        for (char field : order) {
+            final DateSpinner spinner;
+            switch (field) {
                 case 'd':
-                    mPickerContainer.addView(mDaySpinner);
-                    setImeOptions(mDaySpinner, spinnerCount, i);
+                    spinner = mDaySpinner;
                     break;
                 case 'M':
-                    mPickerContainer.addView(mMonthSpinner);
-                    setImeOptions(mMonthSpinner, spinnerCount, i);
+                    spinner = mMonthSpinner;
                     break;
                 case 'y':
-                    mPickerContainer.addView(mYearSpinner);
-                    setImeOptions(mYearSpinner, spinnerCount, i);
+                    if (mDecadeSpinner != null) {
+                        // the decades lead the years
+                        mPickerContainer.addView(mDecadeSpinner.getView());
+                        setImeOptions(mDecadeSpinner, spinnerCount, spinnerIndex++);
+                    }
+                    spinner = mYearSpinner;
                     break;
                 default:
                     throw new IllegalArgumentException(Arrays.toString(order));
             }
+            if (spinner != null) {
+                mPickerContainer.addView(spinner.getView());
+                setImeOptions(spinner, spinnerCount, spinnerIndex++);
+            }
+        }
+        PickerTrace.endSection();
+    }
+
+    /**
+     * Brings the spinners in line with the model. Only the fields the model marked dirty
+     * are looked at, and of those only the ones that differ from what the spinners already
+     * show are applied, as every NumberPicker setter invalidates and some of them request a
+     * layout.
+     *
+     * @return The {@code DIRTY_} bits of the model that were applied.
+     */
+    private int updateSpinners() {
+        PickerTrace.beginSection(PickerTrace.UPDATE_SPINNERS);
+        int dirty = mModel.takeDirty();
+        if ((dirty & DateSelectionModel.DIRTY_VISIBILITY) != 0) {
+            // the model marks the range of a spinner dirty when it is shown again
+            boolean isCreated = false;
+            if (mDaySpinner == null && mModel.isDayShown()) {
+                mDaySpinner = createSpinner(R.id.day, false, 100);
+                mDaySpinner.setFormatter(mDayFormatter);
+                isCreated = true;
+            }
+            if (mYearSpinner == null && mModel.isYearShown()) {
+                mYearSpinner = createSpinner(R.id.year, true, 100);
+                mYearSpinner.setFormatter(mYearFormatter);
+                // the values are shifted for years before 0, so typed years are mapped
+                mYearSpinner.setInputParser(mYearFormatter);
+                isCreated = true;
+            }
+            if (mDecadeSpinner == null && isDecadeSpinnerShown()) {
+                mDecadeSpinner = createDecadeSpinner();
+                isCreated = true;
+            }
+            if (isCreated) {
+                reorderSpinners();
+            }
+            applyVisibility(mDaySpinner, mModel.isDayShown());
+            applyVisibility(mYearSpinner, mModel.isYearShown());
+            applyVisibility(mDecadeSpinner, isDecadeSpinnerShown());
+            mPickerContainer.invalidateMeasurement();
+            if (mEntryField != null) {
+                updateEntryField();
+            }
+            if (mMonthNamesCalendar != mModel.getSpinnerCalendar()) {
+                // hiding the year switches the spinners to Gregorian months
+                dirty |= DateSelectionModel.DIRTY_MONTH_RANGE;
+            }
+        }
+
+        // set the spinner ranges respecting the min and max dates, skipping hidden spinners
+        if (mModel.isDayShown() && (dirty & DateSelectionModel.DIRTY_DAY_RANGE) != 0) {
+            applyRange(mDaySpinner, mModel.getDaySpinnerMin(), mModel.getDaySpinnerMax(),
+                    mModel.isDaySpinnerWrapped(), null);
+        }
+        if ((dirty & DateSelectionModel.DIRTY_MONTH_RANGE) != 0) {
+            final int minMonth = mModel.getMonthSpinnerMin();
+            final int maxMonth = mModel.getMonthSpinnerMax();
+            applyRange(mMonthSpinner, minMonth, maxMonth, mModel.isMonthSpinnerWrapped(),
+                    getMonthWindow(minMonth, maxMonth));
+        }
+        if (mModel.isYearShown() && (dirty & DateSelectionModel.DIRTY_YEAR_RANGE) != 0) {
+            final int minYear = mModel.getYearSpinnerMin();
+            final int maxYear = mModel.getYearSpinnerMax();
+            mYearFormatter.setRange(minYear, maxYear);
+            applyRange(mYearSpinner, mYearFormatter.toValue(minYear),
+                    mYearFormatter.toValue(maxYear), false, null);
+            if (isDecadeSpinnerShown()) {
+                final String[] decadeLabels = getDecadeLabels(minYear, maxYear);
+                applyRange(mDecadeSpinner, 0, decadeLabels.length - 1, false, decadeLabels);
+            }
+        }
+
+        // set the spinner values, which a range change may have clamped
+        if (mModel.isYearShown() && (dirty & (DateSelectionModel.DIRTY_YEAR_VALUE
+                | DateSelectionModel.DIRTY_YEAR_RANGE | DateSelectionModel.DIRTY_VISIBILITY)) != 0) {
+            applyValue(mYearSpinner, mYearFormatter.toValue(mModel.getYear()));
+            if (isDecadeSpinnerShown()) {
+                applyValue(mDecadeSpinner,
+                        decadeOf(mModel.getYear()) - decadeOf(mDecadeMinYear));
+            }
+        }
+        if ((dirty & (DateSelectionModel.DIRTY_MONTH_VALUE
+                | DateSelectionModel.DIRTY_MONTH_RANGE)) != 0) {
+            applyValue(mMonthSpinner, mModel.getMonth());
         }
+        if (mModel.isDayShown() && (dirty & (DateSelectionModel.DIRTY_DAY_VALUE
+                | DateSelectionModel.DIRTY_DAY_RANGE)) != 0) {
+            applyValue(mDaySpinner, mModel.getDayOfMonth());
+        }
+        PickerTrace.endSection();
+        return dirty;
     }
 
-    private boolean isNewDate(int year, int month, int dayOfMonth) {
-        return (mCurrentDate.get(Calendar.YEAR) != year
-                || mCurrentDate.get(Calendar.MONTH) != month
-                || mCurrentDate.get(Calendar.DAY_OF_MONTH) != dayOfMonth);
+    private DateSpinner createSpinner(int id, boolean isYear, long longPressUpdateInterval) {
+        final DateSpinner spinner = inflateSpinner(mInflater, mUseWheels, isYear);
+        spinner.getView().setId(id);
+        spinner.getView().setEnabled(mIsEnabled);
+        spinner.setOnLongPressUpdateInterval(longPressUpdateInterval);
+        spinner.setOnValueChangedListener(mOnValueChangeListener);
+        spinner.setOnScrollListener(mOnScrollListener);
+        return spinner;
     }
 
-    private boolean isNewDate(int month, int dayOfMonth) {
-        return (mCurrentDate.get(Calendar.MONTH) != month
-                || mCurrentDate.get(Calendar.DAY_OF_MONTH) != dayOfMonth);
+    private boolean isDecadeSpinnerShown() {
+        return mIsDecadeSpinnerShown && mModel.isYearShown();
     }
 
-    private void setDate(int year, int month, int dayOfMonth) {
-        mCurrentDate.set(year, month, dayOfMonth);
-        if (mCurrentDate.before(mMinDate)) {
-            mCurrentDate.setTimeInMillis(mMinDate.getTimeInMillis());
-        } else if (mCurrentDate.after(mMaxDate)) {
-            mCurrentDate.setTimeInMillis(mMaxDate.getTimeInMillis());
-        }
+    private DateSpinner createDecadeSpinner() {
+        final DateSpinner spinner = createSpinner(R.id.decade, true, 200);
+        spinner.setOnValueChangedListener((picker, oldVal, newVal) -> {
+            if (!mIsDecadeScrolling) {
+                jumpToDecade(newVal);
+            }
+        });
+        spinner.setOnScrollListener((picker, scrollState) -> {
+            mIsDecadeScrolling = scrollState != DateSpinner.OnScrollListener.SCROLL_STATE_IDLE;
+            if (!mIsDecadeScrolling) {
+                // the decades passed on the way were never applied
+                jumpToDecade(picker.getValue());
+            }
+            mOnScrollListener.onScrollStateChange(picker, scrollState);
+        });
+        return spinner;
     }
 
-    private void setDate(int month, int dayOfMonth) {
-        mCurrentDate.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
-        mCurrentDate.set(Calendar.MONTH, month);
-        mCurrentDate.set(Calendar.DAY_OF_MONTH, dayOfMonth);
+    /**
+     * Moves the year to the decade at a value of the decade spinner, keeping its place in the
+     * decade, as a single change of the year spinner.
+     */
+    private void jumpToDecade(int value) {
+        final int year = mModel.getYear();
+        final int decades = decadeOf(mDecadeMinYear) + value - decadeOf(year);
+        final int newYear = clamp(year + decades * 10, mModel.getYearSpinnerMin(),
+                mModel.getYearSpinnerMax());
+        if (newYear != year) {
+            mOnValueChangeListener.onValueChange(mYearSpinner, mYearFormatter.toValue(year),
+                    mYearFormatter.toValue(newYear));
+        }
     }
 
-    private void updateSpinners() {
-        // set the spinner ranges respecting the min and max dates
-        mDaySpinner.setVisibility(mIsDayShown ? View.VISIBLE : View.GONE);
-        mYearSpinner.setVisibility(mIsYearShown ? View.VISIBLE : View.GONE);
-        if (mIsYearShown && mCurrentDate.equals(mMinDate)) {
-            mDaySpinner.setMinValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
-            mDaySpinner.setMaxValue(mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH));
-            mDaySpinner.setWrapSelectorWheel(false);
-            mMonthSpinner.setDisplayedValues(null);
-            mMonthSpinner.setMinValue(mCurrentDate.get(Calendar.MONTH));
-            mMonthSpinner.setMaxValue(mCurrentDate.getActualMaximum(Calendar.MONTH));
-            mMonthSpinner.setWrapSelectorWheel(false);
-        } else if (mIsYearShown && mCurrentDate.equals(mMaxDate)) {
-            mDaySpinner.setMinValue(mCurrentDate.getActualMinimum(Calendar.DAY_OF_MONTH));
-            mDaySpinner.setMaxValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
-            mDaySpinner.setWrapSelectorWheel(false);
-            mMonthSpinner.setDisplayedValues(null);
-            mMonthSpinner.setMinValue(mCurrentDate.getActualMinimum(Calendar.MONTH));
-            mMonthSpinner.setMaxValue(mCurrentDate.get(Calendar.MONTH));
-            mMonthSpinner.setWrapSelectorWheel(false);
-        } else {
-            mDaySpinner.setMinValue(1);
-            if (mIsYearShown) {
-                mDaySpinner.setMaxValue(mCurrentDate.getActualMaximum(Calendar.DAY_OF_MONTH));
-            } else {
-                mTempDate = (Calendar)mCurrentDate.clone();
-                mTempDate.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
-                mDaySpinner.setMaxValue(mTempDate.getActualMaximum(Calendar.DAY_OF_MONTH));
+    /**
+     * Gets the labels of the decade spinner for a range of years, the label of the first year
+     * of each decade, or of the min year for the first one.
+     */
+    private String[] getDecadeLabels(int minYear, int maxYear) {
+        if (mDecadeLabels == null || minYear != mDecadeMinYear || maxYear != mDecadeMaxYear) {
+            final int minDecade = decadeOf(minYear);
+            final String[] labels = new String[decadeOf(maxYear) - minDecade + 1];
+            for (int i = 0; i < labels.length; i++) {
+                final int year = Math.max(minYear, (minDecade + i) * 10);
+                labels[i] = mYearFormatter.format(mYearFormatter.toValue(year));
             }
-            mDaySpinner.setWrapSelectorWheel(true);
-            mMonthSpinner.setDisplayedValues(null);
-            mMonthSpinner.setMinValue(0);
-            mMonthSpinner.setMaxValue(11);
-            mMonthSpinner.setWrapSelectorWheel(true);
+            mDecadeLabels = labels;
+            mDecadeMinYear = minYear;
+            mDecadeMaxYear = maxYear;
         }
+        return mDecadeLabels;
+    }
 
-        // make sure the month names are a zero based array
-        // with the months in the month spinner
-        String[] displayedValues = Arrays.copyOfRange(mShortMonths,
-                                                      mMonthSpinner.getMinValue(),
-                                                      mMonthSpinner.getMaxValue() + 1);
-        mMonthSpinner.setDisplayedValues(displayedValues);
+    /**
+     * The decade of a year, rounding down for years before 0 too.
+     */
+    private static int decadeOf(int year) {
+        return year >= 0 ? year / 10 : (year - 9) / 10;
+    }
 
-        // year spinner range does not change based on the current date
-        mYearSpinner.setMinValue(mMinDate.get(Calendar.YEAR));
-        mYearSpinner.setMaxValue(mMaxDate.get(Calendar.YEAR));
-        mYearSpinner.setWrapSelectorWheel(false);
+    private DateSpinner inflateSpinner(LayoutInflater inflater, boolean useWheels, boolean isYear) {
+        if (useWheels) {
+            return (WheelPicker) inflater.inflate(isYear ? R.layout.wheel_picker_year
+                    : R.layout.wheel_picker_day_month, mPickerContainer, false);
+        }
+        return new NumberPickerSpinner((NumberPicker) inflater.inflate(isYear
+                ? R.layout.number_picker_year : R.layout.number_picker_day_month,
+                mPickerContainer, false));
+    }
 
-        // set the spinner values
-        if (mIsYearShown) {
-            mYearSpinner.setValue(mCurrentDate.get(Calendar.YEAR));
+    /**
+     * Gets the month names of the calendar the spinners count in, falling back to the
+     * locale's names of the Gregorian months.
+     */
+    private String[] getMonthNames() {
+        final CalendarSystem calendar = mModel.getSpinnerCalendar();
+        if (mMonthNames == null || mMonthNamesCalendar != calendar) {
+            final String[] names = calendar.getMonthNames(mLocaleData.locale);
+            mMonthNames = names != null ? names : mLocaleData.shortMonths;
+            mMonthNamesCalendar = calendar;
+            mMonthWindows = null;
         }
-        mMonthSpinner.setValue(mCurrentDate.get(Calendar.MONTH));
-        mDaySpinner.setValue(mCurrentDate.get(Calendar.DAY_OF_MONTH));
+        return mMonthNames;
+    }
 
-        if (usingNumericMonths()) {
-            mMonthSpinnerInput.setRawInputType(InputType.TYPE_CLASS_NUMBER);
+    /**
+     * Gets the month names shown for a month range, as a zero based array
+     * with the months in the month spinner. Windows are built once per locale
+     * and calendar.
+     */
+    private String[] getMonthWindow(int minMonth, int maxMonth) {
+        final String[] monthNames = getMonthNames();
+        final int numberOfMonths = monthNames.length;
+        if (mMonthWindows == null) {
+            mMonthWindows = new String[numberOfMonths * numberOfMonths][];
+        }
+        final int index = minMonth * numberOfMonths + maxMonth;
+        String[] window = mMonthWindows[index];
+        if (window == null) {
+            window = Arrays.copyOfRange(monthNames, minMonth, maxMonth + 1);
+            mMonthWindows[index] = window;
+        }
+        return window;
+    }
+
+    private static void applyVisibility(DateSpinner spinner, boolean isShown) {
+        if (spinner == null) {
+            return;
+        }
+        final int visibility = isShown ? View.VISIBLE : View.GONE;
+        if (spinner.getView().getVisibility() != visibility) {
+            spinner.getView().setVisibility(visibility);
+        }
+    }
+
+    private static void applyRange(DateSpinner spinner,
+                                   int minValue,
+                                   int maxValue,
+                                   boolean wrapSelectorWheel,
+                                   String[] displayedValues) {
+        if (spinner.getMinValue() != minValue
+                || spinner.getMaxValue() != maxValue
+                || spinner.getDisplayedValues() != displayedValues) {
+            // displayed values have to cover the range, so drop them while it changes
+            spinner.setDisplayedValues(null);
+            spinner.setMinValue(minValue);
+            spinner.setMaxValue(maxValue);
+            spinner.setDisplayedValues(displayedValues);
+        }
+        // changing the range resets the wrapping, so this has to come after it
+        if (spinner.getWrapSelectorWheel() != wrapSelectorWheel) {
+            spinner.setWrapSelectorWheel(wrapSelectorWheel);
+        }
+    }
+
+    private static void applyValue(DateSpinner spinner, int value) {
+        if (spinner.getValue() != value) {
+            spinner.setValue(value);
         }
     }
 
 
     /**
-     * Notifies the listener, if such, for a change in the selected date.
+     * Notifies the listener, if such, for a change in the selected date, or schedules the
+     * notification for the next frame if changes are coalesced.
      */
     private void notifyDateChanged() {
-        sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SELECTED);
+        if (!mCoalesceDateChanges) {
+            dispatchDateChanged();
+        } else if (!mIsNotificationPending) {
+            mIsNotificationPending = true;
+            Choreographer.getInstance().postFrameCallback(mNotifyCallback);
+        }
+    }
+
+    /**
+     * Notifies a newly set listener of the initial date right away.
+     */
+    private void notifyInitialDate() {
+        cancelDateChanged();
+        mNotifiedDate = NO_DATE;
+        dispatchDateChanged();
+    }
+
+    /**
+     * Delivers a scheduled notification right away.
+     */
+    private void flushDateChanged() {
+        if (mIsNotificationPending) {
+            cancelDateChanged();
+            dispatchDateChanged();
+        }
+    }
+
+    private void cancelDateChanged() {
+        if (mIsNotificationPending) {
+            mIsNotificationPending = false;
+            Choreographer.getInstance().removeFrameCallback(mNotifyCallback);
+        }
+    }
+
+    private void dispatchDateChanged() {
+        final int date = mModel.getDate();
+        if (mValidation != null) {
+            mValidation.request(date);
+        }
+        if (mCoalesceDateChanges && date == mNotifiedDate) {
+            return;
+        }
+        PickerTrace.beginSection(PickerTrace.NOTIFY_DATE_CHANGED);
+        mNotifiedDate = date;
+        if (mBoundState != null) {
+            PickerState.setCurrentDate(mBoundState, date);
+        }
+        announceDate();
         if (mOnDateChangedListener != null) {
-            if (mCurrentDate.isSet(Calendar.YEAR)) {
+            mNotificationCount++;
+            if (mModel.isYearShown()) {
                 mOnDateChangedListener.onDateChanged(this, getYear(), getMonth(),
                         getDayOfMonth());
             } else {
@@ -499,6 +1196,7 @@ public class SpinnerDatePicker extends FrameLayout {
                         getDayOfMonth());
             }
         }
+        PickerTrace.endSection();
     }
 
     /**
@@ -508,17 +1206,14 @@ public class SpinnerDatePicker extends FrameLayout {
      * @param spinnerCount The total spinner count.
      * @param spinnerIndex The index of the given spinner.
      */
-    private void setImeOptions(NumberPicker spinner, int spinnerCount, int spinnerIndex) {
+    private void setImeOptions(DateSpinner spinner, int spinnerCount, int spinnerIndex) {
         final int imeOptions;
         if (spinnerIndex < spinnerCount - 1) {
             imeOptions = EditorInfo.IME_ACTION_NEXT;
         } else {
             imeOptions = EditorInfo.IME_ACTION_DONE;
         }
-        TextView input = NumberPickers.findEditText(spinner);
-        if (input != null) {
-            input.setImeOptions(imeOptions);
-        }
+        spinner.setImeOptions(imeOptions);
     }
 
     private void updateInputState() {
@@ -527,43 +1222,73 @@ public class SpinnerDatePicker extends FrameLayout {
         // changed the value via the IME and there is a next input the IME will
         // be shown, otherwise the user chose another means of changing the
         // value and having the IME up makes no sense.
-        InputMethodManager inputMethodManager = (InputMethodManager) getContext().getSystemService(
-                Context.INPUT_METHOD_SERVICE);
-        if (inputMethodManager != null) {
-            if (inputMethodManager.isActive(mYearSpinnerInput)) {
-                mYearSpinnerInput.clearFocus();
-                inputMethodManager.hideSoftInputFromWindow(getWindowToken(), 0);
-            } else if (inputMethodManager.isActive(mMonthSpinnerInput)) {
-                mMonthSpinnerInput.clearFocus();
-                inputMethodManager.hideSoftInputFromWindow(getWindowToken(), 0);
-            } else if (inputMethodManager.isActive(mDaySpinnerInput)) {
-                mDaySpinnerInput.clearFocus();
-                inputMethodManager.hideSoftInputFromWindow(getWindowToken(), 0);
-            }
+        // The IME can only be active for an input that has focus, so the
+        // InputMethodManager is only asked when one of ours does.
+        final View focused = findFocus();
+        if (mInputMethodManager == null || focused == null
+                || (!isInput(mYearSpinner, focused) && !isInput(mMonthSpinner, focused)
+                && !isInput(mDaySpinner, focused) && !isInput(mDecadeSpinner, focused))) {
+            return;
+        }
+        if (mInputMethodManager.isActive(focused)) {
+            focused.clearFocus();
+            mInputMethodManager.hideSoftInputFromWindow(getWindowToken(), 0);
         }
     }
 
+    private static boolean isInput(DateSpinner spinner, View view) {
+        return spinner != null && spinner.getInput() == view;
+    }
+
+    /**
+     * Packs the state of the picker with the given extra {@link PickerState} flags.
+     */
+    int[] saveState(int flags) {
+        return PickerState.save(mModel, flags);
+    }
+
+    /**
+     * Puts back a state packed by {@link #saveState(int)} without notifying the listener.
+     *
+     * @return Whether the state could be read.
+     */
+    boolean restoreState(int[] record) {
+        if (!PickerState.restore(record, mModel)) {
+            return false;
+        }
+        cancelDateChanged();
+        mNotifiedDate = mModel.getDate();
+        updateSpinners();
+        if (mValidation != null) {
+            mValidation.request(mNotifiedDate);
+        }
+        return true;
+    }
+
+    @Override
+    protected void dispatchSaveInstanceState(SparseArray<Parcelable> container) {
+        // the spinners share ids with those of any other picker in the window, and the
+        // state of this picker covers theirs
+        dispatchFreezeSelfOnly(container);
+    }
+
+    @Override
+    protected void dispatchRestoreInstanceState(SparseArray<Parcelable> container) {
+        dispatchThawSelfOnly(container);
+    }
+
     @Override
     protected Parcelable onSaveInstanceState() {
         Parcelable superState = super.onSaveInstanceState();
 
-        return new SavedState(superState, mCurrentDate, mMinDate, mMaxDate, mIsDayShown, mIsYearShown);
+        return new SavedState(superState, saveState(0));
     }
 
     @Override
     protected void onRestoreInstanceState(Parcelable state) {
         SavedState ss = (SavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
-        mCurrentDate = Calendar.getInstance();
-        mCurrentDate.setTimeInMillis(ss.currentDate);
-        mMinDate = Calendar.getInstance();
-        mMinDate.setTimeInMillis(ss.minDate);
-        mMaxDate = Calendar.getInstance();
-        mMaxDate.setTimeInMillis(ss.maxDate);
-        if (!ss.isYearSpinnerShown) {
-            mCurrentDate.set(Calendar.YEAR, KNOWN_LEAP_YEAR);
-        }
-        updateSpinners();
+        restoreState(ss.record);
     }
 
     private static class SavedState extends BaseSavedState {
@@ -580,27 +1305,14 @@ public class SpinnerDatePicker extends FrameLayout {
                 return new SavedState[size];
             }
         };
-        final long currentDate;
-        final long minDate;
-        final long maxDate;
-        final boolean isDaySpinnerShown;
-        final boolean isYearSpinnerShown;
+        final int[] record;
 
         /**
          * Constructor called from {@link SpinnerDatePicker#onSaveInstanceState()}
          */
-        SavedState(Parcelable superState,
-                   Calendar currentDate,
-                   Calendar minDate,
-                   Calendar maxDate,
-                   boolean isDaySpinnerShown,
-                   boolean isYearSpinnerShown) {
+        SavedState(Parcelable superState, int[] record) {
             super(superState);
-            this.currentDate = currentDate.getTimeInMillis();
-            this.minDate = minDate.getTimeInMillis();
-            this.maxDate = maxDate.getTimeInMillis();
-            this.isDaySpinnerShown = isDaySpinnerShown;
-            this.isYearSpinnerShown = isYearSpinnerShown;
+            this.record = record;
         }
 
         /**
@@ -608,21 +1320,13 @@ public class SpinnerDatePicker extends FrameLayout {
          */
         private SavedState(Parcel in) {
             super(in);
-            this.currentDate = in.readLong();
-            this.minDate = in.readLong();
-            this.maxDate = in.readLong();
-            this.isDaySpinnerShown = in.readByte() != 0;
-            this.isYearSpinnerShown = in.readByte() != 0;
+            this.record = in.createIntArray();
         }
 
         @Override
         public void writeToParcel(Parcel dest, int flags) {
             super.writeToParcel(dest, flags);
-            dest.writeLong(currentDate);
-            dest.writeLong(minDate);
-            dest.writeLong(maxDate);
-            dest.writeByte(isDaySpinnerShown ? (byte) 1 : (byte) 0);
-            dest.writeByte(isYearSpinnerShown ? (byte) 1 : (byte) 0);
+            dest.writeIntArray(record);
         }
     }
-}
\ No newline at end of file
+}
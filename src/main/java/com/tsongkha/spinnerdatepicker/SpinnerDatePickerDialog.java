@@ -7,11 +7,14 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 
 import androidx.appcompat.app.AlertDialog;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
 
 import java.text.DateFormat;
-import java.util.Calendar;
+import java.util.Locale;
 
 /**
  * A fork of the Android Open Source Project DatePickerDialog class
@@ -19,21 +22,40 @@ import java.util.Calendar;
 public class SpinnerDatePickerDialog extends AlertDialog implements OnClickListener,
         OnDateChangedListener {
 
-    private static final String YEAR = "year";
-    private static final String MONTH = "month";
-    private static final String DAY = "day";
-    private static final String TITLE_SHOWN = "title_enabled";
+    private static final String STATE = "state";
+    private static final String END_STATE = "end_state";
     private static final String CUSTOM_TITLE = "custom_title";
 
     private final SpinnerDatePicker mDatePicker;
-    private final OnDateSetListener mCallBack;
-    private final OnDateCancelListener mOnCancel;
-    private final DateFormat mTitleDateFormat;
+    private TitleCache mTitleCache;
+    private Locale mTitleLocale;
+    private final int mTheme;
+    private final int mSpinnerTheme;
+    private final boolean mUseWheels;
+    private final long mInflationNanos;
+    private final ViewGroup mDatePickerContainer;
+    private SpinnerDatePicker mEndDatePicker;
+    private DateRangeSelectionModel mDateRange;
+    private OnDateSetListener mCallBack;
+    private OnDateRangeSetListener mRangeCallBack;
+    private OnDateCancelListener mOnCancel;
+    private SpinnerDatePickerDialogPool mPool;
+    private final DateValidation.Listener mValidityListener = view -> updatePositiveButton();
+    private Lifecycle mLifecycle;
+    private final LifecycleEventObserver mLifecycleObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            onHostDestroyed();
+        }
+    };
 
-    private final boolean mIsDayShown;
-    private final boolean mIsYearShown;
+    private boolean mIsDayShown;
+    private boolean mIsYearShown;
     private boolean mIsTitleShown;
     private String mCustomTitle;
+    private CharSequence mTitle;
+    private int mRangeTitleStart;
+    private int mRangeTitleEnd;
+    private String mRangeTitle;
 
     /**
      * The callback used to indicate the user is done filling in the date.
@@ -51,6 +73,24 @@ public class SpinnerDatePickerDialog extends AlertDialog implements OnClickListe
         void onDateSet(SpinnerDatePicker view, int monthOfYear, int dayOfMonth);
     }
 
+    /**
+     * The callback used to indicate the user is done picking a range of dates.
+     */
+    public interface OnDateRangeSetListener {
+        /**
+         * @param view             The view of the start date.
+         * @param startYear        The year of the start date.
+         * @param startMonthOfYear The month of the start date (0-11).
+         * @param startDayOfMonth  The day of the month of the start date.
+         * @param endYear          The year of the end date.
+         * @param endMonthOfYear   The month of the end date (0-11).
+         * @param endDayOfMonth    The day of the month of the end date.
+         */
+        void onDateRangeSet(SpinnerDatePicker view,
+                            int startYear, int startMonthOfYear, int startDayOfMonth,
+                            int endYear, int endMonthOfYear, int endDayOfMonth);
+    }
+
     /**
      * Callback for when things are cancelled
      */
@@ -63,55 +103,252 @@ public class SpinnerDatePickerDialog extends AlertDialog implements OnClickListe
         void onCancelled(SpinnerDatePicker view);
     }
 
-    SpinnerDatePickerDialog(Context context,
-                            int theme,
-                            int spinnerTheme,
-                            OnDateSetListener callBack,
-                            OnDateCancelListener onCancel,
-                            Calendar defaultDate,
-                            Calendar minDate,
-                            Calendar maxDate,
-                            boolean isDayShown,
-                            boolean isYearShown,
-                            boolean isTitleShown,
-                            String customTitle) {
-        super(context, theme);
-
-        mCallBack = callBack;
-        mOnCancel = onCancel;
-        mTitleDateFormat = DateFormat.getDateInstance(DateFormat.LONG);
-        mIsDayShown = isDayShown;
-        mIsYearShown = isYearShown;
-        mIsTitleShown = isTitleShown;
-        mCustomTitle = customTitle;
-
-        updateTitle(defaultDate);
+    SpinnerDatePickerDialog(Context context, SpinnerDatePickerDialogBuilder.Options options) {
+        super(context, options.theme);
+
+        mTheme = options.theme;
+        mSpinnerTheme = options.spinnerTheme;
+        mUseWheels = options.useWheels;
+        mTitleLocale = Locale.getDefault();
+        mTitleCache = new TitleCache(DateFormat.getDateInstance(DateFormat.LONG, mTitleLocale));
 
         setButton(BUTTON_POSITIVE, context.getText(android.R.string.ok),
                 this);
         setButton(BUTTON_NEGATIVE, context.getText(android.R.string.cancel),
                 this);
 
+        PickerTrace.beginSection(PickerTrace.INFLATE);
+        final long inflationStartNanos = System.nanoTime();
         LayoutInflater inflater =
                 (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
         View view = inflater.inflate(R.layout.date_picker_dialog_container, null);
         setView(view);
-        mDatePicker = new SpinnerDatePicker((ViewGroup) view, spinnerTheme);
-        if (isYearShown) {
-            mDatePicker.setMinDate(minDate);
-            mDatePicker.setMaxDate(maxDate);
-            mDatePicker.init(defaultDate.get(Calendar.YEAR), defaultDate.get(Calendar.MONTH), defaultDate.get(Calendar.DAY_OF_MONTH), isDayShown, isYearShown, this);
+        mDatePickerContainer = (ViewGroup) view;
+        mDatePicker = new SpinnerDatePicker(mDatePickerContainer, mSpinnerTheme, mUseWheels);
+        mInflationNanos = System.nanoTime() - inflationStartNanos - mDatePicker.getReorderNanos();
+        PickerTrace.endSection();
+        rebind(options);
+    }
+
+    /**
+     * Points this dialog at the dates, flags and callbacks of a new build without inflating
+     * anything, so a dismissed dialog can be shown again as if it had just been built.
+     *
+     * A range callback switches to picking a range of dates with a second picker for the end
+     * date, {@code minSpanDays} to {@code maxSpanDays} days after the start. The end date
+     * defaults to the earliest one allowed if it is {@link Integer#MIN_VALUE}.
+     *
+     * The spinners count in the given calendar system, while all dates stay Gregorian.
+     *
+     * With a validator, the positive button is only enabled once every picked date was
+     * found valid on the validation executor.
+     */
+    void rebind(SpinnerDatePickerDialogBuilder.Options options) {
+        mCallBack = options.callBack;
+        mRangeCallBack = options.rangeCallBack;
+        mOnCancel = options.onCancel;
+        mIsDayShown = options.isDayShown;
+        mIsYearShown = options.isYearShown;
+        mIsTitleShown = options.isTitleShown;
+        mCustomTitle = options.customTitle;
+
+        final int year = Dates.year(options.defaultDate);
+        final int month = Dates.month(options.defaultDate);
+        final int dayOfMonth = Dates.day(options.defaultDate);
+
+        // first, so that a hidden spinner is never created by the updates below
+        mDatePicker.setFieldsShown(options.isDayShown, options.isYearShown);
+        // the dates are only disabled once the range is in place, so that the rules are
+        // never compiled over the range of the last build, see DisabledDates#index
+        mDatePicker.setDisabledDates(null);
+        mDatePicker.setCoalesceDateChanges(options.coalesceDateChanges);
+        mDatePicker.setTypedEntry(options.typedEntry);
+        mDatePicker.setDecadeSpinner(options.decadeSpinner);
+        mDatePicker.setCalendarSystem(options.calendarSystem);
+        mDatePicker.setDateValidator(options.validator, options.validationExecutor,
+                mValidityListener);
+        if (options.rangeCallBack != null) {
+            bindRange(options);
         } else {
-            mDatePicker.init(defaultDate.get(Calendar.MONTH), defaultDate.get(Calendar.DAY_OF_MONTH), isDayShown, isYearShown, this);
+            if (mEndDatePicker != null) {
+                mEndDatePicker.setVisibility(View.GONE);
+                mEndDatePicker.setDateValidator(null, null, null);
+            }
+            if (options.isYearShown) {
+                mDatePicker.setDateRange(options.minDate, options.maxDate);
+                mDatePicker.setDisabledDates(options.disabledDates);
+                mDatePicker.init(year, month, dayOfMonth, options.isDayShown, true, this);
+            } else {
+                mDatePicker.setDisabledDates(options.disabledDates);
+                mDatePicker.init(month, dayOfMonth, options.isDayShown, false, this);
+            }
+        }
+        // last, as the title of a range reads the end picker that bindRange creates, and from
+        // the picker, which has moved a default out of range or disabled to an allowed date
+        updateTitle(mDatePicker.getYear(), mDatePicker.getMonth(), mDatePicker.getDayOfMonth());
+    }
+
+    private void bindRange(SpinnerDatePickerDialogBuilder.Options options) {
+        if (mEndDatePicker == null) {
+            mEndDatePicker = new SpinnerDatePicker(mDatePickerContainer, mSpinnerTheme,
+                    mUseWheels);
+            mDateRange = new DateRangeSelectionModel(mDatePicker.getModel(),
+                    mEndDatePicker.getModel());
+        }
+        mEndDatePicker.setVisibility(View.VISIBLE);
+        mEndDatePicker.setFieldsShown(options.isDayShown, true);
+        mEndDatePicker.setCoalesceDateChanges(options.coalesceDateChanges);
+        mEndDatePicker.setTypedEntry(options.typedEntry);
+        mEndDatePicker.setDecadeSpinner(options.decadeSpinner);
+        mEndDatePicker.setDisabledDates(null);
+        mEndDatePicker.setCalendarSystem(options.calendarSystem);
+        mEndDatePicker.setDateValidator(options.validator, options.validationExecutor,
+                mValidityListener);
+        mDateRange.setBounds(options.minDate, options.maxDate, options.minSpanDays,
+                options.maxSpanDays);
+        mDatePicker.setDisabledDates(options.disabledDates);
+        mEndDatePicker.setDisabledDates(options.disabledDates);
+        mDatePicker.syncWithModel();
+        mEndDatePicker.syncWithModel();
+
+        // the start notifies its initial date first, which moves the end's range into place
+        final int startDate = options.defaultDate;
+        mDatePicker.init(Dates.year(startDate), Dates.month(startDate), Dates.day(startDate),
+                options.isDayShown, true, this);
+        int endDate = options.defaultEndDate;
+        if (endDate == Integer.MIN_VALUE) {
+            endDate = mEndDatePicker.getModel().getMinDate();
+        }
+        mEndDatePicker.init(Dates.year(endDate), Dates.month(endDate), Dates.day(endDate),
+                options.isDayShown, true, this);
+    }
+
+    int getDialogTheme() {
+        return mTheme;
+    }
+
+    int getSpinnerTheme() {
+        return mSpinnerTheme;
+    }
+
+    boolean usesWheels() {
+        return mUseWheels;
+    }
+
+    /**
+     * The time spent inflating this dialog and its spinners, not counting the ordering of the
+     * spinners.
+     */
+    long getInflationNanos() {
+        return mInflationNanos;
+    }
+
+    long getReorderNanos() {
+        return mDatePicker.getReorderNanos();
+    }
+
+    /**
+     * Reports the costs of this dialog to the given metrics, if any, counting the time to the
+     * first draw from {@code buildStartNanos}.
+     */
+    void setMetrics(PickerMetrics metrics, long buildStartNanos) {
+        mDatePicker.setMetrics(metrics, buildStartNanos);
+    }
+
+    /**
+     * Sets the pool this dialog returns to once it is dismissed.
+     */
+    void setPool(SpinnerDatePickerDialogPool pool) {
+        mPool = pool;
+    }
+
+    /**
+     * Dismisses this dialog and lets go of its callbacks and pool once the given lifecycle is
+     * destroyed, or never if it is null.
+     */
+    void setLifecycle(Lifecycle lifecycle) {
+        if (lifecycle == mLifecycle) {
+            return;
+        }
+        if (mLifecycle != null) {
+            mLifecycle.removeObserver(mLifecycleObserver);
+        }
+        mLifecycle = lifecycle;
+        if (lifecycle != null) {
+            lifecycle.addObserver(mLifecycleObserver);
+        }
+    }
+
+    private void onHostDestroyed() {
+        setLifecycle(null);
+        final SpinnerDatePickerDialogPool pool = mPool;
+        // so that dismissing does not put this dialog back
+        mPool = null;
+        if (pool != null) {
+            pool.clear();
+        }
+        dismiss();
+        detach();
+    }
+
+    /**
+     * Drops everything the caller handed in that may hold on to an Activity, so that an idle
+     * or orphaned dialog keeps none of it alive. {@link #rebind} sets it all again.
+     */
+    private void detach() {
+        mDatePicker.unbind();
+        mDatePicker.setDateValidator(null, null, null);
+        mDatePicker.setMetrics(null, 0);
+        if (mEndDatePicker != null) {
+            mEndDatePicker.unbind();
+            mEndDatePicker.setDateValidator(null, null, null);
+            mEndDatePicker.setMetrics(null, 0);
         }
+        mCallBack = null;
+        mRangeCallBack = null;
+        mOnCancel = null;
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // the buttons only exist once the dialog has been created
+        updatePositiveButton();
+    }
 
+    /**
+     * Enables the positive button when every picked date passed validation.
+     */
+    private void updatePositiveButton() {
+        final Button positive = getButton(BUTTON_POSITIVE);
+        if (positive != null) {
+            positive.setEnabled(mDatePicker.isDateValid()
+                    && (mRangeCallBack == null || mEndDatePicker == null
+                    || mEndDatePicker.isDateValid()));
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (mPool != null) {
+            detach();
+            mPool.release(this);
+        }
     }
 
     @Override
     public void onClick(DialogInterface dialog, int which) {
         switch (which) {
             case BUTTON_POSITIVE: {
-                if (mCallBack != null) {
+                if (mRangeCallBack != null) {
+                    mDatePicker.clearFocus();
+                    mEndDatePicker.clearFocus();
+                    mRangeCallBack.onDateRangeSet(mDatePicker, mDatePicker.getYear(),
+                            mDatePicker.getMonth(), mDatePicker.getDayOfMonth(),
+                            mEndDatePicker.getYear(), mEndDatePicker.getMonth(),
+                            mEndDatePicker.getDayOfMonth());
+                } else if (mCallBack != null) {
                     mDatePicker.clearFocus();
                     if (mIsYearShown) {
                         mCallBack.onDateSet(mDatePicker, mDatePicker.getYear(),
@@ -134,38 +371,88 @@ public class SpinnerDatePickerDialog extends AlertDialog implements OnClickListe
 
     @Override
     public void onDateChanged(SpinnerDatePicker view, int year, int monthOfYear, int dayOfMonth) {
-        Calendar updatedDate = Calendar.getInstance();
-        updatedDate.set(Calendar.YEAR, year);
-        updatedDate.set(Calendar.MONTH, monthOfYear);
-        updatedDate.set(Calendar.DAY_OF_MONTH, dayOfMonth);
-        updateTitle(updatedDate);
+        if (mRangeCallBack != null && view == mDatePicker) {
+            // only the bounds of the end fields that the new start affects are updated
+            mDateRange.onStartChanged();
+            mEndDatePicker.syncWithModel();
+        }
+        updateTitle(year, monthOfYear, dayOfMonth);
     }
 
     @Override
     public void onDateChanged(SpinnerDatePicker view, int monthOfYear, int dayOfMonth) {
-        Calendar updatedDate = Calendar.getInstance();
-        updatedDate.set(Calendar.MONTH, monthOfYear);
-        updatedDate.set(Calendar.DAY_OF_MONTH, dayOfMonth);
-        updateTitle(updatedDate);
+        updateTitle(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthOfYear, dayOfMonth);
+    }
+
+    /**
+     * Switches the spinners and the title to another locale in place, keeping the selected
+     * dates, for apps that handle locale changes themselves in
+     * {@code Activity#onConfigurationChanged}.
+     */
+    public void relocalize(Locale locale) {
+        mDatePicker.relocalize(locale);
+        if (mEndDatePicker != null) {
+            mEndDatePicker.relocalize(locale);
+        }
+        if (!locale.equals(mTitleLocale)) {
+            mTitleLocale = locale;
+            mTitleCache = new TitleCache(DateFormat.getDateInstance(DateFormat.LONG, locale));
+            mRangeTitle = null;
+            updateTitle(mDatePicker.getYear(), mDatePicker.getMonth(),
+                    mDatePicker.getDayOfMonth());
+        }
+    }
+
+    @Override
+    public void setTitle(CharSequence title) {
+        mTitle = title;
+        super.setTitle(title);
     }
 
-    private void updateTitle(Calendar updatedDate) {
+    private void updateTitle(int year, int monthOfYear, int dayOfMonth) {
+        final CharSequence title;
         if (mIsTitleShown && mCustomTitle != null && !mCustomTitle.isEmpty()) {
-            setTitle(mCustomTitle);
+            title = mCustomTitle;
+        } else if (mIsTitleShown && mRangeCallBack != null && mEndDatePicker != null) {
+            title = rangeTitle();
         } else if (mIsTitleShown) {
-            setTitle(mTitleDateFormat.format(updatedDate.getTime()));
+            title = mTitleCache.format(year, monthOfYear, dayOfMonth);
         } else {
-            setTitle(" ");
+            title = " ";
+        }
+        // setting the title relayouts the title bar, so skip it when nothing changed
+        if (!title.equals(mTitle)) {
+            setTitle(title);
         }
     }
 
+    /**
+     * The title of the picked range, only joined again once either of its dates changed, as
+     * the end picker reports every tick of the start that moves it along.
+     */
+    private String rangeTitle() {
+        final int start = Dates.of(mDatePicker.getYear(), mDatePicker.getMonth(),
+                mDatePicker.getDayOfMonth());
+        final int end = Dates.of(mEndDatePicker.getYear(), mEndDatePicker.getMonth(),
+                mEndDatePicker.getDayOfMonth());
+        if (mRangeTitle == null || start != mRangeTitleStart || end != mRangeTitleEnd) {
+            mRangeTitleStart = start;
+            mRangeTitleEnd = end;
+            mRangeTitle = mTitleCache.format(Dates.year(start), Dates.month(start),
+                    Dates.day(start)) + " \u2013 " + mTitleCache.format(Dates.year(end),
+                    Dates.month(end), Dates.day(end));
+        }
+        return mRangeTitle;
+    }
+
     @Override
     public Bundle onSaveInstanceState() {
         Bundle state = super.onSaveInstanceState();
-        state.putInt(YEAR, mDatePicker.getYear());
-        state.putInt(MONTH, mDatePicker.getMonth());
-        state.putInt(DAY, mDatePicker.getDayOfMonth());
-        state.putBoolean(TITLE_SHOWN, mIsTitleShown);
+        state.putIntArray(STATE,
+                mDatePicker.saveState(mIsTitleShown ? PickerState.FLAG_TITLE_SHOWN : 0));
+        if (mRangeCallBack != null) {
+            state.putIntArray(END_STATE, mEndDatePicker.saveState(0));
+        }
         state.putString(CUSTOM_TITLE, mCustomTitle);
         return state;
     }
@@ -173,16 +460,19 @@ public class SpinnerDatePickerDialog extends AlertDialog implements OnClickListe
     @Override
     public void onRestoreInstanceState(Bundle savedInstanceState) {
         super.onRestoreInstanceState(savedInstanceState);
-        int year = savedInstanceState.getInt(YEAR);
-        int month = savedInstanceState.getInt(MONTH);
-        int day = savedInstanceState.getInt(DAY);
-        mIsTitleShown = savedInstanceState.getBoolean(TITLE_SHOWN);
+        // the pickers are already inflated and bound, so only the state is put back, quietly
+        final int[] record = savedInstanceState.getIntArray(STATE);
+        if (!mDatePicker.restoreState(record)) {
+            return;
+        }
+        final int flags = PickerState.flags(record);
+        mIsDayShown = (flags & PickerState.FLAG_DAY_SHOWN) != 0;
+        mIsYearShown = (flags & PickerState.FLAG_YEAR_SHOWN) != 0;
+        mIsTitleShown = (flags & PickerState.FLAG_TITLE_SHOWN) != 0;
         mCustomTitle = savedInstanceState.getString(CUSTOM_TITLE);
-        Calendar c = Calendar.getInstance();
-        c.set(Calendar.YEAR, year);
-        c.set(Calendar.MONTH, month);
-        c.set(Calendar.DAY_OF_MONTH, day);
-        updateTitle(c);
-        mDatePicker.init(year, month, day, mIsDayShown, mIsYearShown, this);
-    }
-}
\ No newline at end of file
+        if (mRangeCallBack != null) {
+            mEndDatePicker.restoreState(savedInstanceState.getIntArray(END_STATE));
+        }
+        updateTitle(mDatePicker.getYear(), mDatePicker.getMonth(), mDatePicker.getDayOfMonth());
+    }
+}
@@ -1,28 +1,68 @@
 package com.tsongkha.spinnerdatepicker;
 
 import android.content.Context;
+import android.content.ContextWrapper;
 
-import java.util.Calendar;
-import java.util.GregorianCalendar;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
+
+/**
+ * Builds a {@link SpinnerDatePickerDialog}.
+ *
+ * Years before 1 AD are given in astronomical numbering, so 0 is 1 BC and -1 is 2 BC, and
+ * the year spinner labels them with the locale's era name. Out of range months and days roll
+ * over into the next or previous month and year.
+ *
+ * The Context is held weakly, so a builder kept across a configuration change does not keep
+ * the old Activity alive. Once the lifecycle the dialogs follow is destroyed, see
+ * {@link #lifecycleOwner}, the builder also drops the callbacks, validator, pool and metrics
+ * given to it, so set them again along with the new Context.
+ */
 public class SpinnerDatePickerDialogBuilder {
 
-    private Context context;
+    private WeakReference<Context> context;
     private SpinnerDatePickerDialog.OnDateSetListener callBack;
     private SpinnerDatePickerDialog.OnDateCancelListener onCancel;
     private boolean isDayShown = true;
     private boolean isYearShown = true;
     private boolean isTitleShown = true;
+    private boolean coalesceDateChanges = false;
+    private boolean useWheels = false;
+    private boolean typedEntry = false;
+    private boolean decadeSpinner = false;
+    private boolean monthYearMode = false;
     private String customTitle = "";
     private int theme = 0;                 //default theme
     private int spinnerTheme = 0;          //default theme
-    private Calendar defaultDate = new GregorianCalendar(1980, 0, 1);
-    private Calendar minDate = new GregorianCalendar(1900, 0, 1);
-    private Calendar maxDate = new GregorianCalendar(2100, 0, 1);
+    private int defaultDate = Dates.of(1980, 0, 1);
+    private int minDate = SpinnerDatePicker.DEFAULT_MIN_DATE;
+    private int maxDate = SpinnerDatePicker.DEFAULT_MAX_DATE;
+    private SpinnerDatePickerDialogPool pool;
+    private PickerMetrics metrics;
+    private DisabledDates disabledDates;
+    private SpinnerDatePickerDialog.OnDateRangeSetListener rangeCallBack;
+    private int defaultEndDate = Integer.MIN_VALUE;   //earliest end allowed
+    private int minSpanDays = 0;
+    private int maxSpanDays = DateRangeSelectionModel.NO_MAX_SPAN;
+    private CalendarSystem calendarSystem = CalendarSystem.GREGORIAN;
+    private DateValidator validator;
+    private Executor validationExecutor;
+    private Lifecycle lifecycle;
+    private Lifecycle observedLifecycle;
+    private final LifecycleEventObserver lifecycleObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            onHostDestroyed();
+        }
+    };
 
 
     public SpinnerDatePickerDialogBuilder context(Context context) {
-        this.context = context;
+        this.context = context != null ? new WeakReference<>(context) : null;
+        observe(lifecycle());
         return this;
     }
 
@@ -31,6 +71,15 @@ public class SpinnerDatePickerDialogBuilder {
         return this;
     }
 
+    /**
+     * Pick a start and an end date together instead of a single date. The default date is the
+     * start, and {@link #callback} is not called.
+     */
+    public SpinnerDatePickerDialogBuilder rangeCallback(SpinnerDatePickerDialog.OnDateRangeSetListener rangeCallBack) {
+        this.rangeCallBack = rangeCallBack;
+        return this;
+    }
+
     public SpinnerDatePickerDialogBuilder onCancel(SpinnerDatePickerDialog.OnDateCancelListener onCancel) {
         this.onCancel = onCancel;
         return this;
@@ -47,32 +96,47 @@ public class SpinnerDatePickerDialogBuilder {
     }
 
     public SpinnerDatePickerDialogBuilder defaultDate(int year, int monthIndexedFromZero, int day) {
-        this.defaultDate = new GregorianCalendar(year, monthIndexedFromZero, day);
+        this.defaultDate = Dates.normalize(year, monthIndexedFromZero, day);
         return this;
     }
 
     public SpinnerDatePickerDialogBuilder defaultDate(int monthIndexedFromZero, int day) {
-        this.defaultDate = new GregorianCalendar(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
+        this.defaultDate = Dates.normalize(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
+        return this;
+    }
+
+    public SpinnerDatePickerDialogBuilder defaultEndDate(int year, int monthIndexedFromZero, int day) {
+        this.defaultEndDate = Dates.normalize(year, monthIndexedFromZero, day);
+        return this;
+    }
+
+    /**
+     * The number of days the end of a range can be after the start, 0 allowing both on the
+     * same day.
+     */
+    public SpinnerDatePickerDialogBuilder span(int minDays, int maxDays) {
+        this.minSpanDays = minDays;
+        this.maxSpanDays = maxDays;
         return this;
     }
 
     public SpinnerDatePickerDialogBuilder minDate(int year, int monthIndexedFromZero, int day) {
-        this.minDate = new GregorianCalendar(year, monthIndexedFromZero, day);
+        this.minDate = Dates.normalize(year, monthIndexedFromZero, day);
         return this;
     }
 
     public SpinnerDatePickerDialogBuilder minDate(int monthIndexedFromZero, int day) {
-        this.minDate = new GregorianCalendar(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
+        this.minDate = Dates.normalize(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
         return this;
     }
 
     public SpinnerDatePickerDialogBuilder maxDate(int year, int monthIndexedFromZero, int day) {
-        this.maxDate = new GregorianCalendar(year, monthIndexedFromZero, day);
+        this.maxDate = Dates.normalize(year, monthIndexedFromZero, day);
         return this;
     }
 
     public SpinnerDatePickerDialogBuilder maxDate(int monthIndexedFromZero, int day) {
-        this.maxDate = new GregorianCalendar(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
+        this.maxDate = Dates.normalize(SpinnerDatePicker.KNOWN_LEAP_YEAR, monthIndexedFromZero, day);
         return this;
     }
 
@@ -86,6 +150,16 @@ public class SpinnerDatePickerDialogBuilder {
         return this;
     }
 
+    /**
+     * Pick a month of a year, as for card expiry dates. Only the month and year spinners are
+     * shown and every date is the first of its month, including the min, max and default
+     * dates. Overrides {@link #showDaySpinner(boolean)} and {@link #showYearSpinner(boolean)}.
+     */
+    public SpinnerDatePickerDialogBuilder monthYearMode(boolean monthYearMode) {
+        this.monthYearMode = monthYearMode;
+        return this;
+    }
+
     public SpinnerDatePickerDialogBuilder showTitle(boolean showTitle) {
         this.isTitleShown = showTitle;
         return this;
@@ -96,10 +170,250 @@ public class SpinnerDatePickerDialogBuilder {
         return this;
     }
 
+    /**
+     * Fold the date changes of a fling or long press into at most one
+     * {@link OnDateChangedListener} notification per frame, always ending with the settled date.
+     */
+    public SpinnerDatePickerDialogBuilder coalesceDateChanges(boolean coalesceDateChanges) {
+        this.coalesceDateChanges = coalesceDateChanges;
+        return this;
+    }
+
+    /**
+     * Show a field above the spinners to type a whole date into, in the order of the
+     * spinners. Months can be typed as numbers or as the start of their names.
+     */
+    public SpinnerDatePickerDialogBuilder typedEntry(boolean typedEntry) {
+        this.typedEntry = typedEntry;
+        return this;
+    }
+
+    /**
+     * Show a spinner of decades next to the year spinner, to get to a distant year quickly.
+     * Turning it moves the year ten at a time, and a fling moves it once, where it settles.
+     */
+    public SpinnerDatePickerDialogBuilder decadeSpinner(boolean decadeSpinner) {
+        this.decadeSpinner = decadeSpinner;
+        return this;
+    }
+
+    /**
+     * Draw the spinners with a lightweight canvas-drawn wheel instead of
+     * {@link android.widget.NumberPicker}. The wheel has no EditText child and only redraws
+     * when its value or range changes; typing a value opens an input over it on demand.
+     */
+    public SpinnerDatePickerDialogBuilder wheelSpinners(boolean useWheels) {
+        this.useWheels = useWheels;
+        return this;
+    }
+
+    /**
+     * Reuse dismissed dialogs from the given pool instead of inflating a new one on every
+     * {@link #build()}.
+     */
+    public SpinnerDatePickerDialogBuilder pool(SpinnerDatePickerDialogPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Dates that cannot be picked, such as holidays or weekends. The spinners skip over them.
+     * The rules can no longer change after this, see {@link DisabledDates}.
+     */
+    public SpinnerDatePickerDialogBuilder disabledDates(DisabledDates disabledDates) {
+        if (disabledDates != null) {
+            disabledDates.freeze();
+        }
+        this.disabledDates = disabledDates;
+        return this;
+    }
+
+    /**
+     * Count years, months and days in another calendar system, such as
+     * {@link CalendarSystem#BUDDHIST}. Dates given to the builder and to the callbacks stay
+     * Gregorian. While the year spinner is hidden the months are always Gregorian.
+     */
+    public SpinnerDatePickerDialogBuilder calendarSystem(CalendarSystem calendarSystem) {
+        this.calendarSystem = calendarSystem;
+        return this;
+    }
+
+    /**
+     * Check every picked date with a validator running on the given executor, such as a
+     * database lookup. The positive button is disabled until the date on screen passed.
+     */
+    public SpinnerDatePickerDialogBuilder validator(DateValidator validator, Executor executor) {
+        this.validator = validator;
+        this.validationExecutor = executor;
+        return this;
+    }
+
+    /**
+     * Dismiss the dialog, and drop its callbacks and pool, once the given owner is destroyed.
+     * Defaults to the Context if it is a {@link LifecycleOwner}, such as an AppCompatActivity.
+     * Use the view lifecycle owner of a Fragment to follow the Fragment instead.
+     */
+    public SpinnerDatePickerDialogBuilder lifecycleOwner(LifecycleOwner owner) {
+        this.lifecycle = owner != null ? owner.getLifecycle() : null;
+        observe(lifecycle());
+        return this;
+    }
+
+    /**
+     * Report the construction, first draw and value change costs of the dialog.
+     */
+    public SpinnerDatePickerDialogBuilder metrics(PickerMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     public SpinnerDatePickerDialog build() {
+        final long buildStartNanos = System.nanoTime();
+        final Context context = this.context != null ? this.context.get() : null;
+        final Lifecycle lifecycle = lifecycle();
+        final Options options = new Options(this);
         if (context == null) throw new IllegalArgumentException("Context must not be null");
-        if (maxDate.getTime().getTime() <= minDate.getTime().getTime()) throw new IllegalArgumentException("Max date is not after Min date");
+        // in month and year mode both may pin to the same month, which is then the only one
+        if (monthYearMode && maxDate < minDate) throw new IllegalArgumentException("Max date is before Min date");
+        if (!monthYearMode && maxDate <= minDate) throw new IllegalArgumentException("Max date is not after Min date");
+        if (disabledDates != null && options.isYearShown && !disabledDates.index(options.minDate, options.maxDate).hasEnabledDate(options.minDate, options.maxDate)) throw new IllegalArgumentException("Every date between Min date and Max date is disabled");
+        if (rangeCallBack != null && !options.isYearShown) throw new IllegalArgumentException("A date range needs the year spinner");
+        if (minSpanDays < 0 || maxSpanDays < minSpanDays) throw new IllegalArgumentException("Invalid span of " + minSpanDays + " to " + maxSpanDays + " days");
+        if (rangeCallBack != null && !DateRangeSelectionModel.fits(options.minDate, options.maxDate, minSpanDays)) throw new IllegalArgumentException("Min span does not fit between Min date and Max date");
+        if (calendarSystem == null) throw new IllegalArgumentException("Calendar system must not be null");
+        if (validator != null && validationExecutor == null) throw new IllegalArgumentException("Validator needs an Executor");
+        if (lifecycle != null && lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) throw new IllegalArgumentException("Lifecycle is already destroyed");
+        if (pool != null && pool.getContext() != context) throw new IllegalArgumentException("Pool belongs to a different Context");
+
+        if (pool != null) {
+            SpinnerDatePickerDialog dialog = pool.acquire(theme, spinnerTheme, useWheels);
+            if (dialog != null) {
+                dialog.rebind(options);
+                dialog.setMetrics(metrics, buildStartNanos);
+                dialog.setLifecycle(lifecycle);
+                return dialog;
+            }
+        }
+        SpinnerDatePickerDialog dialog = new SpinnerDatePickerDialog(context, options);
+        dialog.setPool(pool);
+        dialog.setMetrics(metrics, buildStartNanos);
+        dialog.setLifecycle(lifecycle);
+        if (metrics != null) {
+            metrics.onDialogCreated(dialog.getInflationNanos(), dialog.getReorderNanos());
+        }
+        return dialog;
+    }
+
+    /**
+     * The lifecycle the dialogs follow, either the one given or the one of the Context.
+     */
+    private Lifecycle lifecycle() {
+        return lifecycle != null ? lifecycle : lifecycleOf(context != null ? context.get() : null);
+    }
+
+    private void observe(Lifecycle lifecycle) {
+        if (lifecycle == observedLifecycle) {
+            return;
+        }
+        if (observedLifecycle != null) {
+            observedLifecycle.removeObserver(lifecycleObserver);
+        }
+        observedLifecycle = lifecycle;
+        if (lifecycle != null) {
+            lifecycle.addObserver(lifecycleObserver);
+        }
+    }
+
+    /**
+     * Drops everything given to this builder that may hold on to the destroyed host, so that
+     * a builder kept across a configuration change keeps none of it alive.
+     */
+    private void onHostDestroyed() {
+        observe(null);
+        lifecycle = null;
+        callBack = null;
+        onCancel = null;
+        rangeCallBack = null;
+        validator = null;
+        validationExecutor = null;
+        pool = null;
+        metrics = null;
+    }
+
+    /**
+     * The lifecycle of the first LifecycleOwner among a Context and the ones it wraps.
+     */
+    static Lifecycle lifecycleOf(Context context) {
+        while (context != null) {
+            if (context instanceof LifecycleOwner) {
+                return ((LifecycleOwner) context).getLifecycle();
+            }
+            context = context instanceof ContextWrapper
+                    ? ((ContextWrapper) context).getBaseContext() : null;
+        }
+        return null;
+    }
+
+    private static int firstOfMonth(int date) {
+        return Dates.of(Dates.year(date), Dates.month(date), 1);
+    }
+
+    /**
+     * The settings of one {@link #build()}, as the dialog is bound to them. Dates are packed,
+     * see {@link Dates}, and already pinned to the first of the month in month and year mode.
+     */
+    static final class Options {
+
+        final int theme;
+        final int spinnerTheme;
+        final boolean useWheels;
+        final SpinnerDatePickerDialog.OnDateSetListener callBack;
+        final SpinnerDatePickerDialog.OnDateCancelListener onCancel;
+        final SpinnerDatePickerDialog.OnDateRangeSetListener rangeCallBack;
+        final int defaultDate;
+        final int defaultEndDate;
+        final int minDate;
+        final int maxDate;
+        final int minSpanDays;
+        final int maxSpanDays;
+        final boolean isDayShown;
+        final boolean isYearShown;
+        final boolean isTitleShown;
+        final String customTitle;
+        final boolean coalesceDateChanges;
+        final boolean typedEntry;
+        final boolean decadeSpinner;
+        final DisabledDates disabledDates;
+        final CalendarSystem calendarSystem;
+        final DateValidator validator;
+        final Executor validationExecutor;
 
-        return new SpinnerDatePickerDialog(context, theme, spinnerTheme, callBack, onCancel, defaultDate, minDate, maxDate, isDayShown, isYearShown, isTitleShown, customTitle);
+        private Options(SpinnerDatePickerDialogBuilder builder) {
+            final boolean monthYearMode = builder.monthYearMode;
+            theme = builder.theme;
+            spinnerTheme = builder.spinnerTheme;
+            useWheels = builder.useWheels;
+            callBack = builder.callBack;
+            onCancel = builder.onCancel;
+            rangeCallBack = builder.rangeCallBack;
+            defaultDate = monthYearMode ? firstOfMonth(builder.defaultDate) : builder.defaultDate;
+            defaultEndDate = monthYearMode && builder.defaultEndDate != Integer.MIN_VALUE
+                    ? firstOfMonth(builder.defaultEndDate) : builder.defaultEndDate;
+            minDate = monthYearMode ? firstOfMonth(builder.minDate) : builder.minDate;
+            maxDate = monthYearMode ? firstOfMonth(builder.maxDate) : builder.maxDate;
+            minSpanDays = builder.minSpanDays;
+            maxSpanDays = builder.maxSpanDays;
+            isDayShown = builder.isDayShown && !monthYearMode;
+            isYearShown = builder.isYearShown || monthYearMode;
+            isTitleShown = builder.isTitleShown;
+            customTitle = builder.customTitle;
+            coalesceDateChanges = builder.coalesceDateChanges;
+            typedEntry = builder.typedEntry;
+            decadeSpinner = builder.decadeSpinner;
+            disabledDates = builder.disabledDates;
+            calendarSystem = builder.calendarSystem;
+            validator = builder.validator;
+            validationExecutor = builder.validationExecutor;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.content.Context;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * A bounded pool of dismissed {@link SpinnerDatePickerDialog}s for one hosting Context.
+ *
+ * Passing a pool to {@link SpinnerDatePickerDialogBuilder#pool(SpinnerDatePickerDialogPool)}
+ * makes {@link SpinnerDatePickerDialogBuilder#build()} rebind a dismissed dialog to the new
+ * dates, flags and callbacks instead of inflating a new one. Create one pool per Activity. If
+ * the Context is a LifecycleOwner, such as an AppCompatActivity, the pool empties itself and
+ * takes no more dialogs once it is destroyed, and must be cleared by the caller otherwise.
+ * The Context is held weakly, so a pool outliving its Activity does not keep it alive. A
+ * dialog returns to the pool when it is dismissed, so it must not be shown again by the
+ * caller after that.
+ */
+public class SpinnerDatePickerDialogPool {
+
+    private static final int DEFAULT_MAX_SIZE = 2;
+
+    private final WeakReference<Context> mContext;
+
+    private final int mMaxSize;
+
+    private final ArrayList<SpinnerDatePickerDialog> mIdleDialogs;
+
+    private boolean mIsDestroyed;
+
+    private final LifecycleEventObserver mLifecycleObserver = (source, event) -> {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            onHostDestroyed(source.getLifecycle());
+        }
+    };
+
+    public SpinnerDatePickerDialogPool(Context context) {
+        this(context, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param context The Context hosting the dialogs.
+     * @param maxSize The maximum number of dismissed dialogs kept for reuse.
+     */
+    public SpinnerDatePickerDialogPool(Context context, int maxSize) {
+        if (context == null) throw new IllegalArgumentException("Context must not be null");
+        if (maxSize < 1) throw new IllegalArgumentException("Max size must be positive");
+        mContext = new WeakReference<>(context);
+        mMaxSize = maxSize;
+        mIdleDialogs = new ArrayList<>(maxSize);
+        final Lifecycle lifecycle = SpinnerDatePickerDialogBuilder.lifecycleOf(context);
+        if (lifecycle != null) {
+            mIsDestroyed = lifecycle.getCurrentState() == Lifecycle.State.DESTROYED;
+            lifecycle.addObserver(mLifecycleObserver);
+        }
+    }
+
+    /**
+     * The Context hosting the dialogs, or null once it has been collected.
+     */
+    public Context getContext() {
+        return mContext.get();
+    }
+
+    private void onHostDestroyed(Lifecycle lifecycle) {
+        lifecycle.removeObserver(mLifecycleObserver);
+        mIsDestroyed = true;
+        clear();
+    }
+
+    /**
+     * Drops all the dismissed dialogs held by this pool.
+     */
+    public void clear() {
+        mIdleDialogs.clear();
+    }
+
+    /**
+     * Takes a dismissed dialog inflated with the given themes and spinner kind out of the
+     * pool.
+     *
+     * @return The dialog, or null if there is none.
+     */
+    SpinnerDatePickerDialog acquire(int theme, int spinnerTheme, boolean useWheels) {
+        for (int i = mIdleDialogs.size() - 1; i >= 0; i--) {
+            SpinnerDatePickerDialog dialog = mIdleDialogs.get(i);
+            if (dialog.getDialogTheme() == theme && dialog.getSpinnerTheme() == spinnerTheme
+                    && dialog.usesWheels() == useWheels) {
+                mIdleDialogs.remove(i);
+                return dialog;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a dismissed dialog to the pool, if there is room for it and the Context is not
+     * destroyed.
+     */
+    void release(SpinnerDatePickerDialog dialog) {
+        if (!mIsDestroyed && mIdleDialogs.size() < mMaxSize && !mIdleDialogs.contains(dialog)) {
+            mIdleDialogs.add(dialog);
+        }
+    }
+}
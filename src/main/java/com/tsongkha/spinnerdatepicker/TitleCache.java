@@ -0,0 +1,82 @@
+package com.tsongkha.spinnerdatepicker;
+
+import java.text.DateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Formats dates given as primitive year, month and day, keeping the most recently used
+ * results. Users tend to scroll back and forth over the same few days, so after the first
+ * pass over them a title is a lookup in a handful of ints rather than a Calendar allocation
+ * and a trip through {@link DateFormat}.
+ *
+ * Not thread safe, like the {@link DateFormat} it wraps.
+ */
+final class TitleCache {
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    private static final long MILLIS_PER_HALF_DAY = MILLIS_PER_DAY / 2;
+
+    private final DateFormat mDateFormat;
+
+    private final Date mDate = new Date();
+
+    private final int[] mDates;
+
+    private final String[] mTitles;
+
+    private final long[] mLastUses;
+
+    private int mSize;
+
+    private long mClock;
+
+    TitleCache(DateFormat dateFormat) {
+        this(dateFormat, DEFAULT_CAPACITY);
+    }
+
+    TitleCache(DateFormat dateFormat, int capacity) {
+        mDateFormat = dateFormat;
+        Calendar calendar = dateFormat.getCalendar();
+        if (calendar instanceof GregorianCalendar) {
+            // Dates is proleptic Gregorian, so don't switch to Julian dates before 1582.
+            ((GregorianCalendar) calendar).setGregorianChange(new Date(Long.MIN_VALUE));
+        }
+        mDates = new int[capacity];
+        mTitles = new String[capacity];
+        mLastUses = new long[capacity];
+    }
+
+    String format(int year, int month, int dayOfMonth) {
+        final int date = Dates.of(year, month, dayOfMonth);
+        int leastRecentlyUsed = 0;
+        for (int i = 0; i < mSize; i++) {
+            if (mDates[i] == date) {
+                mLastUses[i] = ++mClock;
+                return mTitles[i];
+            }
+            if (mLastUses[i] < mLastUses[leastRecentlyUsed]) {
+                leastRecentlyUsed = i;
+            }
+        }
+        final int slot = mSize < mDates.length ? mSize++ : leastRecentlyUsed;
+        final String title = formatUncached(date);
+        mDates[slot] = date;
+        mTitles[slot] = title;
+        mLastUses[slot] = ++mClock;
+        return title;
+    }
+
+    private String formatUncached(int date) {
+        // Format local noon of the day, which stays on the same day across DST transitions.
+        final TimeZone timeZone = mDateFormat.getTimeZone();
+        final long localNoon = Dates.toEpochDay(date) * MILLIS_PER_DAY + MILLIS_PER_HALF_DAY;
+        mDate.setTime(localNoon - timeZone.getOffset(localNoon));
+        return mDateFormat.format(mDate);
+    }
+}
@@ -2,54 +2,51 @@ package com.tsongkha.spinnerdatepicker;
 
 import android.widget.NumberPicker;
 
-import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
 /**
- * Copy of {android.widget.NumberPicker.TwoDigitFormatter}, modified
+ * Replacement for {android.widget.NumberPicker.TwoDigitFormatter}, modified
  * so that it doesn't use libcore.
  *
  * Use a custom NumberPicker formatting callback to use two-digit minutes
- * strings like "01". Keeping a static formatter etc. is the most efficient
- * way to do this; it avoids creating temporary objects on every call to
- * format().
+ * strings like "01". The strings come from a table shared per zero digit,
+ * so format() is an array lookup that never creates temporary objects.
  */
 public class TwoDigitFormatter implements NumberPicker.Formatter {
-    final StringBuilder mBuilder = new StringBuilder();
 
-    char mZeroDigit;
-    java.util.Formatter mFmt;
+    private Locale mDefaultLocale;
 
-    final Object[] mArgs = new Object[1];
+    private char mZeroDigit;
+
+    private String[] mDigits;
 
     public TwoDigitFormatter() {
-        final Locale locale = Locale.getDefault();
+        mDefaultLocale = Locale.getDefault();
+        init(mDefaultLocale);
+    }
+
+    /**
+     * Formats with the digits of a locale until the default locale changes.
+     */
+    void setLocale(Locale locale) {
+        mDefaultLocale = Locale.getDefault();
         init(locale);
     }
 
     private void init(Locale locale) {
-        mFmt = createFormatter(locale);
-        mZeroDigit = getZeroDigit(locale);
+        mZeroDigit = DigitTables.zeroDigit(locale);
+        mDigits = DigitTables.twoDigits(mZeroDigit);
     }
 
     public String format(int value) {
         final Locale currentLocale = Locale.getDefault();
-        if (mZeroDigit != getZeroDigit(currentLocale)) {
+        if (currentLocale != mDefaultLocale) {
+            mDefaultLocale = currentLocale;
             init(currentLocale);
         }
-        mArgs[0] = value;
-        mBuilder.delete(0, mBuilder.length());
-        mFmt.format("%02d", mArgs);
-        return mFmt.toString();
-    }
-
-    private static char getZeroDigit(Locale locale) {
-        // The original TwoDigitFormatter directly referenced LocaleData's value. Instead,
-        // we need to use the public DecimalFormatSymbols API.
-        return DecimalFormatSymbols.getInstance(locale).getZeroDigit();
-    }
-
-    private java.util.Formatter createFormatter(Locale locale) {
-        return new java.util.Formatter(mBuilder, locale);
+        if (value >= 0 && value < mDigits.length) {
+            return mDigits[value];
+        }
+        return DigitTables.format(mZeroDigit, value, 2);
     }
 }
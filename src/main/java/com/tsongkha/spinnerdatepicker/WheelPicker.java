@@ -0,0 +1,818 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.text.InputType;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputMethodManager;
+import android.widget.EditText;
+import android.widget.NumberPicker;
+import android.widget.OverScroller;
+import android.widget.PopupWindow;
+
+/**
+ * A canvas-drawn wheel of values, a lightweight alternative to {@link NumberPicker} with the
+ * same min/max/wrap/value API.
+ *
+ * Items are drawn straight onto the canvas from a small cache of labels and their measured
+ * widths. There is no EditText child and no measure pass on value or range changes, which
+ * only invalidate. Direct text entry goes through an input overlay that is only created the
+ * first time the selected item is tapped.
+ */
+class WheelPicker extends View implements DateSpinner {
+
+    private static final int SELECTOR_WHEEL_ITEM_COUNT = 3;
+
+    private static final int SELECTOR_MIDDLE_ITEM_INDEX = SELECTOR_WHEEL_ITEM_COUNT / 2;
+
+    private static final int SNAP_SCROLL_DURATION = 300;
+
+    private static final int CHANGE_CURRENT_BY_ONE_SCROLL_DURATION = 300;
+
+    private static final long DEFAULT_LONG_PRESS_UPDATE_INTERVAL = 300;
+
+    private static final float DEFAULT_TEXT_SIZE_SP = 20;
+
+    private static final int DEFAULT_MIN_ITEM_HEIGHT_DIP = 48;
+
+    private static final int DEFAULT_MIN_WIDTH_DIP = 64;
+
+    private static final int DIVIDER_HEIGHT_DIP = 2;
+
+    private static final float FADED_ITEM_ALPHA = 0.4f;
+
+    private static final int LABEL_CACHE_SIZE = 8;
+
+    private static final int SCROLLER_NONE = 0;
+
+    private static final int SCROLLER_FLING = 1;
+
+    private static final int SCROLLER_ADJUST = 2;
+
+    private final Paint mTextPaint;
+
+    private final Paint mDividerPaint;
+
+    private final int mTextColor;
+
+    private final int mDividerHeight;
+
+    private final int mMinItemHeight;
+
+    private final int mMinWidth;
+
+    private final OverScroller mScroller;
+
+    private final int mTouchSlop;
+
+    private final int mMinimumFlingVelocity;
+
+    private final int mMaximumFlingVelocity;
+
+    private int mItemHeight;
+
+    private final float mTextBaselineOffset;
+
+    private int mMinValue;
+
+    private int mMaxValue;
+
+    private int mValue;
+
+    private boolean mWrapSelectorWheelPreferred = true;
+
+    private String[] mDisplayedValues;
+
+    private NumberPicker.Formatter mFormatter;
+
+    private InputParser mInputParser;
+
+    /**
+     * How far in pixels the wheel is scrolled off the current value, positive values
+     * moving the smaller values towards the middle.
+     */
+    private int mOffset;
+
+    private int mScrollerMode = SCROLLER_NONE;
+
+    private int mPreviousScrollerY;
+
+    private int mScrollState = OnScrollListener.SCROLL_STATE_IDLE;
+
+    private VelocityTracker mVelocityTracker;
+
+    private float mLastDownY;
+
+    private float mLastMotionY;
+
+    private boolean mIsBeingDragged;
+
+    private boolean mIncrement;
+
+    private long mLongPressUpdateInterval = DEFAULT_LONG_PRESS_UPDATE_INTERVAL;
+
+    /**
+     * Whether the press going on has stepped the value by itself, so that releasing it does
+     * not step it again.
+     */
+    private boolean mHasLongPressStepped;
+
+    private final Runnable mChangeCurrentByOneFromLongPress = new Runnable() {
+        @Override
+        public void run() {
+            mHasLongPressStepped = true;
+            stepBy(mIncrement ? 1 : -1);
+            postDelayed(this, mLongPressUpdateInterval);
+        }
+    };
+
+    private final int[] mLabelValues = new int[LABEL_CACHE_SIZE];
+
+    private final String[] mLabels = new String[LABEL_CACHE_SIZE];
+
+    private final float[] mLabelWidths = new float[LABEL_CACHE_SIZE];
+
+    private int mLabelCount;
+
+    private int mNextLabelSlot;
+
+    private OnValueChangeListener mOnValueChangeListener;
+
+    private OnScrollListener mOnScrollListener;
+
+    private boolean mIsInputEnabled = true;
+
+    private int mImeOptions = EditorInfo.IME_ACTION_DONE;
+
+    /**
+     * The input type of the text input, or 0 to pick one from whether there are displayed
+     * values.
+     */
+    private int mRawInputType;
+
+    private EditText mInput;
+
+    private PopupWindow mInputPopup;
+
+    public WheelPicker(Context context) {
+        this(context, null);
+    }
+
+    public WheelPicker(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public WheelPicker(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        final float density = getResources().getDisplayMetrics().density;
+
+        // same theme attributes as a styled NumberPicker
+        TypedArray attributes = context.obtainStyledAttributes(new int[]{
+                android.R.attr.textSize,
+                android.R.attr.textColorPrimary,
+                android.R.attr.colorControlNormal});
+        final float textSize = attributes.getDimension(0, TypedValue.applyDimension(
+                TypedValue.COMPLEX_UNIT_SP, DEFAULT_TEXT_SIZE_SP, getResources().getDisplayMetrics()));
+        mTextColor = attributes.getColor(1, Color.BLACK);
+        final int dividerColor = attributes.getColor(2, mTextColor);
+        attributes.recycle();
+
+        mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mTextPaint.setTextSize(textSize);
+        mTextPaint.setColor(mTextColor);
+        mDividerPaint = new Paint();
+        mDividerPaint.setColor(dividerColor);
+        mDividerHeight = Math.max(1, (int) (DIVIDER_HEIGHT_DIP * density));
+        mMinItemHeight = (int) (DEFAULT_MIN_ITEM_HEIGHT_DIP * density);
+        mMinWidth = (int) (DEFAULT_MIN_WIDTH_DIP * density);
+
+        Paint.FontMetrics fontMetrics = mTextPaint.getFontMetrics();
+        mTextBaselineOffset = -(fontMetrics.ascent + fontMetrics.descent) / 2;
+        mItemHeight = Math.max(mMinItemHeight,
+                (int) (2 * (fontMetrics.descent - fontMetrics.ascent)));
+
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinimumFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaximumFlingVelocity = configuration.getScaledMaximumFlingVelocity() / 8;
+        mScroller = new OverScroller(context);
+
+        setFocusable(true);
+        setClickable(true);
+    }
+
+    /**
+     * Sets whether tapping the selected item opens a text input to type a value in.
+     */
+    public void setInputEnabled(boolean inputEnabled) {
+        mIsInputEnabled = inputEnabled;
+        if (!inputEnabled) {
+            dismissInput(false);
+        }
+    }
+
+    @Override
+    public View getView() {
+        return this;
+    }
+
+    @Override
+    public int getMinValue() {
+        return mMinValue;
+    }
+
+    @Override
+    public void setMinValue(int minValue) {
+        if (mMinValue == minValue) {
+            return;
+        }
+        mMinValue = minValue;
+        if (mMaxValue < minValue) {
+            mMaxValue = minValue;
+        }
+        onRangeChanged();
+    }
+
+    @Override
+    public int getMaxValue() {
+        return mMaxValue;
+    }
+
+    @Override
+    public void setMaxValue(int maxValue) {
+        if (mMaxValue == maxValue) {
+            return;
+        }
+        mMaxValue = maxValue;
+        if (mMinValue > maxValue) {
+            mMinValue = maxValue;
+        }
+        onRangeChanged();
+    }
+
+    @Override
+    public int getValue() {
+        return mValue;
+    }
+
+    @Override
+    public void setValue(int value) {
+        value = Math.max(mMinValue, Math.min(mMaxValue, value));
+        if (mValue != value) {
+            mValue = value;
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean getWrapSelectorWheel() {
+        return mWrapSelectorWheelPreferred && isWrappingAllowed();
+    }
+
+    @Override
+    public void setWrapSelectorWheel(boolean wrapSelectorWheel) {
+        if (mWrapSelectorWheelPreferred != wrapSelectorWheel) {
+            mWrapSelectorWheelPreferred = wrapSelectorWheel;
+            invalidate();
+        }
+    }
+
+    @Override
+    public String[] getDisplayedValues() {
+        return mDisplayedValues;
+    }
+
+    @Override
+    public void setDisplayedValues(String[] displayedValues) {
+        if (mDisplayedValues == displayedValues) {
+            return;
+        }
+        mDisplayedValues = displayedValues;
+        clearLabels();
+        invalidate();
+    }
+
+    @Override
+    public void setFormatter(NumberPicker.Formatter formatter) {
+        if (mFormatter == formatter) {
+            return;
+        }
+        mFormatter = formatter;
+        clearLabels();
+        invalidate();
+    }
+
+    @Override
+    public void setInputParser(InputParser inputParser) {
+        mInputParser = inputParser;
+    }
+
+    @Override
+    public void setOnLongPressUpdateInterval(long intervalMillis) {
+        mLongPressUpdateInterval = intervalMillis;
+    }
+
+    @Override
+    public void setOnValueChangedListener(OnValueChangeListener onValueChangedListener) {
+        mOnValueChangeListener = onValueChangedListener;
+    }
+
+    @Override
+    public void setOnScrollListener(OnScrollListener onScrollListener) {
+        mOnScrollListener = onScrollListener;
+    }
+
+    @Override
+    public void setImeOptions(int imeOptions) {
+        mImeOptions = imeOptions;
+        if (mInput != null) {
+            mInput.setImeOptions(imeOptions);
+        }
+    }
+
+    @Override
+    public void setRawInputType(int type) {
+        mRawInputType = type;
+    }
+
+    @Override
+    public EditText getInput() {
+        return mInput;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        if (!enabled) {
+            abortScroll();
+            dismissInput(false);
+        }
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final int desiredWidth = mMinWidth + getPaddingLeft() + getPaddingRight();
+        final int desiredHeight = SELECTOR_WHEEL_ITEM_COUNT * mItemHeight
+                + getPaddingTop() + getPaddingBottom();
+        setMeasuredDimension(resolveSize(Math.max(desiredWidth, getSuggestedMinimumWidth()),
+                widthMeasureSpec),
+                resolveSize(Math.max(desiredHeight, getSuggestedMinimumHeight()),
+                        heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        final int contentHeight = h - getPaddingTop() - getPaddingBottom();
+        mItemHeight = Math.max(1, contentHeight / SELECTOR_WHEEL_ITEM_COUNT);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        final float centerX = (getPaddingLeft() + getWidth() - getPaddingRight()) / 2f;
+        final float centerY = (getPaddingTop() + getHeight() - getPaddingBottom()) / 2f;
+        final boolean wrap = getWrapSelectorWheel();
+
+        // one extra item on each side is partially visible while scrolling
+        final int reach = SELECTOR_MIDDLE_ITEM_INDEX + 1;
+        for (int i = -reach; i <= reach; i++) {
+            final float y = centerY + i * mItemHeight + mOffset;
+            if (y < -mItemHeight || y > getHeight() + mItemHeight) {
+                continue;
+            }
+            final int value = valueAt(i, wrap);
+            if (value == Integer.MIN_VALUE) {
+                continue;
+            }
+            final float distance = Math.min(1f, Math.abs(y - centerY) / mItemHeight);
+            final float alpha = 1f - (1f - FADED_ITEM_ALPHA) * distance;
+            mTextPaint.setAlpha((int) (Color.alpha(mTextColor) * alpha));
+            final int slot = getLabelSlot(value);
+            canvas.drawText(mLabels[slot], centerX - mLabelWidths[slot] / 2,
+                    y + mTextBaselineOffset, mTextPaint);
+        }
+
+        final float top = centerY - mItemHeight / 2f;
+        final float bottom = centerY + mItemHeight / 2f;
+        canvas.drawRect(getPaddingLeft(), top - mDividerHeight, getWidth() - getPaddingRight(),
+                top, mDividerPaint);
+        canvas.drawRect(getPaddingLeft(), bottom, getWidth() - getPaddingRight(),
+                bottom + mDividerHeight, mDividerPaint);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled()) {
+            return false;
+        }
+        if (mVelocityTracker == null) {
+            mVelocityTracker = VelocityTracker.obtain();
+        }
+        mVelocityTracker.addMovement(event);
+        final float y = event.getY();
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                removeCallbacks(mChangeCurrentByOneFromLongPress);
+                if (getParent() != null) {
+                    getParent().requestDisallowInterceptTouchEvent(true);
+                }
+                mLastDownY = y;
+                mLastMotionY = y;
+                mHasLongPressStepped = false;
+                if (mScrollerMode != SCROLLER_NONE) {
+                    // catch the wheel mid-flight and keep scrolling it by hand
+                    mScroller.forceFinished(true);
+                    mScrollerMode = SCROLLER_NONE;
+                    mIsBeingDragged = true;
+                    setScrollState(OnScrollListener.SCROLL_STATE_TOUCH_SCROLL);
+                } else {
+                    mIsBeingDragged = false;
+                    final int item = getItemAt(y);
+                    if (item != 0) {
+                        mIncrement = item > 0;
+                        postDelayed(mChangeCurrentByOneFromLongPress,
+                                ViewConfiguration.getLongPressTimeout());
+                    }
+                }
+                return true;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                if (!mIsBeingDragged && Math.abs(y - mLastDownY) > mTouchSlop) {
+                    mIsBeingDragged = true;
+                    removeCallbacks(mChangeCurrentByOneFromLongPress);
+                    setScrollState(OnScrollListener.SCROLL_STATE_TOUCH_SCROLL);
+                    mLastMotionY = y;
+                }
+                if (mIsBeingDragged) {
+                    final int deltaY = (int) (y - mLastMotionY);
+                    if (deltaY != 0) {
+                        mLastMotionY += deltaY;
+                        scrollByOffset(deltaY);
+                        invalidate();
+                    }
+                }
+                return true;
+            }
+            case MotionEvent.ACTION_UP: {
+                removeCallbacks(mChangeCurrentByOneFromLongPress);
+                if (mIsBeingDragged) {
+                    mVelocityTracker.computeCurrentVelocity(1000, mMaximumFlingVelocity);
+                    final int velocityY = (int) mVelocityTracker.getYVelocity();
+                    if (Math.abs(velocityY) > mMinimumFlingVelocity) {
+                        fling(velocityY);
+                    } else {
+                        adjust(-mOffset, SNAP_SCROLL_DURATION);
+                    }
+                } else if (!mHasLongPressStepped) {
+                    // a tap, which steps towards an outer item or types into the middle one
+                    final int item = getItemAt(y);
+                    if (item != 0) {
+                        changeValueByOne(item > 0);
+                    } else if (mIsInputEnabled) {
+                        performClick();
+                        showInput();
+                    }
+                }
+                recycleVelocityTracker();
+                return true;
+            }
+            case MotionEvent.ACTION_CANCEL: {
+                removeCallbacks(mChangeCurrentByOneFromLongPress);
+                if (mIsBeingDragged) {
+                    adjust(-mOffset, SNAP_SCROLL_DURATION);
+                }
+                recycleVelocityTracker();
+                return true;
+            }
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        if (isEnabled() && (keyCode == KeyEvent.KEYCODE_DPAD_UP
+                || keyCode == KeyEvent.KEYCODE_DPAD_DOWN)) {
+            final boolean increment = keyCode == KeyEvent.KEYCODE_DPAD_DOWN;
+            if (getWrapSelectorWheel() || (increment ? mValue < mMaxValue : mValue > mMinValue)) {
+                changeValueByOne(increment);
+                return true;
+            }
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+
+    @Override
+    public void computeScroll() {
+        if (mScrollerMode == SCROLLER_NONE) {
+            return;
+        }
+        if (mScroller.computeScrollOffset()) {
+            final int currentY = mScroller.getCurrY();
+            final int deltaY = currentY - mPreviousScrollerY;
+            mPreviousScrollerY = currentY;
+            if (deltaY != 0) {
+                scrollByOffset(deltaY);
+            }
+            postInvalidateOnAnimation();
+        } else if (mScrollerMode == SCROLLER_FLING && mOffset != 0) {
+            adjust(-mOffset, SNAP_SCROLL_DURATION);
+        } else {
+            mScrollerMode = SCROLLER_NONE;
+            if (mOffset != 0) {
+                mOffset = 0;
+                invalidate();
+            }
+            setScrollState(OnScrollListener.SCROLL_STATE_IDLE);
+        }
+    }
+
+    @Override
+    public void onPopulateAccessibilityEvent(AccessibilityEvent event) {
+        super.onPopulateAccessibilityEvent(event);
+        event.getText().add(mLabels[getLabelSlot(mValue)]);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(mChangeCurrentByOneFromLongPress);
+        abortScroll();
+        dismissInput(false);
+        super.onDetachedFromWindow();
+    }
+
+    private boolean isWrappingAllowed() {
+        // like NumberPicker, a wheel with fewer values than visible items does not wrap
+        return mMaxValue - mMinValue >= SELECTOR_WHEEL_ITEM_COUNT;
+    }
+
+    private void onRangeChanged() {
+        if (mValue < mMinValue) {
+            mValue = mMinValue;
+        } else if (mValue > mMaxValue) {
+            mValue = mMaxValue;
+        }
+        // displayed values are looked up by value - min, and formatters may shift with the range
+        clearLabels();
+        invalidate();
+    }
+
+    /**
+     * The value shown {@code items} positions away from the middle, or Integer.MIN_VALUE if
+     * the wheel ends before that.
+     */
+    private int valueAt(int items, boolean wrap) {
+        int value = mValue;
+        final int count = mMaxValue - mMinValue + 1;
+        value += items;
+        if (value < mMinValue || value > mMaxValue) {
+            if (!wrap) {
+                return Integer.MIN_VALUE;
+            }
+            value = mMinValue + ((value - mMinValue) % count + count) % count;
+        }
+        return value;
+    }
+
+    /**
+     * Which item a y coordinate falls on, relative to the middle one.
+     */
+    private int getItemAt(float y) {
+        final float centerY = (getPaddingTop() + getHeight() - getPaddingBottom()) / 2f;
+        if (y < centerY - mItemHeight / 2f) {
+            return -1;
+        } else if (y > centerY + mItemHeight / 2f) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private void scrollByOffset(int deltaY) {
+        final boolean wrap = getWrapSelectorWheel();
+        final int halfItem = mItemHeight / 2;
+        mOffset += deltaY;
+        while (mOffset > halfItem && (wrap || mValue > mMinValue)) {
+            mOffset -= mItemHeight;
+            changeValueByScroll(valueAt(-1, wrap));
+        }
+        while (mOffset < -halfItem && (wrap || mValue < mMaxValue)) {
+            mOffset += mItemHeight;
+            changeValueByScroll(valueAt(1, wrap));
+        }
+        if (!wrap && ((mValue <= mMinValue && mOffset > 0) || (mValue >= mMaxValue && mOffset < 0))) {
+            // hit the end of the wheel
+            mOffset = 0;
+            if (mScrollerMode == SCROLLER_FLING) {
+                mScroller.forceFinished(true);
+            }
+        }
+    }
+
+    private void changeValueByScroll(int value) {
+        final int oldValue = mValue;
+        mValue = value;
+        if (mOnValueChangeListener != null && oldValue != value) {
+            mOnValueChangeListener.onValueChange(this, oldValue, value);
+        }
+    }
+
+    private void changeValueByOne(boolean increment) {
+        abortScroll();
+        adjust(increment ? -mItemHeight : mItemHeight, CHANGE_CURRENT_BY_ONE_SCROLL_DURATION);
+    }
+
+    /**
+     * Steps the value without animation, for the long press auto repeat.
+     */
+    private void stepBy(int items) {
+        final boolean wrap = getWrapSelectorWheel();
+        final int value = valueAt(items, wrap);
+        if (value != Integer.MIN_VALUE) {
+            changeValueByScroll(value);
+            invalidate();
+        }
+    }
+
+    private void fling(int velocityY) {
+        mPreviousScrollerY = 0;
+        mScrollerMode = SCROLLER_FLING;
+        mScroller.fling(0, 0, 0, velocityY, 0, 0, Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2);
+        setScrollState(OnScrollListener.SCROLL_STATE_FLING);
+        postInvalidateOnAnimation();
+    }
+
+    private void adjust(int deltaY, int duration) {
+        mPreviousScrollerY = 0;
+        mScrollerMode = SCROLLER_ADJUST;
+        mScroller.startScroll(0, 0, 0, deltaY, duration);
+        postInvalidateOnAnimation();
+    }
+
+    private void abortScroll() {
+        if (mScrollerMode != SCROLLER_NONE) {
+            mScroller.forceFinished(true);
+            mScrollerMode = SCROLLER_NONE;
+        }
+        if (mOffset != 0) {
+            mOffset = 0;
+            invalidate();
+        }
+        setScrollState(OnScrollListener.SCROLL_STATE_IDLE);
+    }
+
+    private void setScrollState(int scrollState) {
+        if (mScrollState == scrollState) {
+            return;
+        }
+        mScrollState = scrollState;
+        if (scrollState != OnScrollListener.SCROLL_STATE_IDLE) {
+            dismissInput(false);
+        }
+        if (mOnScrollListener != null) {
+            mOnScrollListener.onScrollStateChange(this, scrollState);
+        }
+    }
+
+    private void recycleVelocityTracker() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+    }
+
+    private void clearLabels() {
+        mLabelCount = 0;
+        mNextLabelSlot = 0;
+    }
+
+    /**
+     * Gets the slot of a value in the label cache, formatting and measuring it on a miss.
+     */
+    private int getLabelSlot(int value) {
+        for (int i = 0; i < mLabelCount; i++) {
+            if (mLabelValues[i] == value) {
+                return i;
+            }
+        }
+        final int slot = mNextLabelSlot;
+        mNextLabelSlot = (mNextLabelSlot + 1) % LABEL_CACHE_SIZE;
+        mLabelCount = Math.max(mLabelCount, slot + 1);
+        final String label = formatValue(value);
+        mLabelValues[slot] = value;
+        mLabels[slot] = label;
+        mLabelWidths[slot] = mTextPaint.measureText(label);
+        return slot;
+    }
+
+    private String formatValue(int value) {
+        if (mDisplayedValues != null) {
+            return mDisplayedValues[value - mMinValue];
+        } else if (mFormatter != null) {
+            return mFormatter.format(value);
+        }
+        return Integer.toString(value);
+    }
+
+    private void showInput() {
+        if (mInput == null) {
+            mInput = new EditText(getContext());
+            mInput.setGravity(Gravity.CENTER);
+            mInput.setSingleLine(true);
+            mInput.setTextSize(TypedValue.COMPLEX_UNIT_PX, mTextPaint.getTextSize());
+            mInput.setImeOptions(mImeOptions);
+            mInput.setOnEditorActionListener((view, actionId, event) -> {
+                dismissInput(true);
+                return true;
+            });
+            mInputPopup = new PopupWindow(mInput, getWidth(), mItemHeight, true);
+            mInputPopup.setOnDismissListener(() -> commitInput());
+        }
+        if (mRawInputType != 0) {
+            mInput.setRawInputType(mRawInputType);
+        } else {
+            mInput.setRawInputType(mDisplayedValues != null ? InputType.TYPE_CLASS_TEXT
+                    : InputType.TYPE_CLASS_NUMBER);
+        }
+        mInput.setText(formatValue(mValue));
+        mInput.selectAll();
+        mInputPopup.setWidth(getWidth());
+        mInputPopup.setHeight(mItemHeight);
+        mInputPopup.showAsDropDown(this, 0, -(getHeight() + mItemHeight) / 2);
+        mInput.requestFocus();
+        mInput.post(() -> {
+            InputMethodManager inputMethodManager = (InputMethodManager) getContext()
+                    .getSystemService(Context.INPUT_METHOD_SERVICE);
+            if (inputMethodManager != null) {
+                inputMethodManager.showSoftInput(mInput, 0);
+            }
+        });
+    }
+
+    private void dismissInput(boolean commit) {
+        if (mInputPopup == null || !mInputPopup.isShowing()) {
+            return;
+        }
+        if (!commit) {
+            // the dismiss listener commits whatever is in the input
+            mInput.setText(null);
+        }
+        mInputPopup.dismiss();
+    }
+
+    private void commitInput() {
+        final CharSequence text = mInput.getText();
+        if (text == null || text.length() == 0) {
+            return;
+        }
+        final int value = parseInput(text.toString());
+        if (value != Integer.MIN_VALUE && value != mValue) {
+            changeValueByScroll(Math.max(mMinValue, Math.min(mMaxValue, value)));
+            invalidate();
+        }
+    }
+
+    private int parseInput(String text) {
+        if (mInputParser != null) {
+            return mInputParser.parseValue(text);
+        }
+        if (mDisplayedValues != null) {
+            final String prefix = text.toLowerCase();
+            for (int i = 0; i < mDisplayedValues.length; i++) {
+                if (mDisplayedValues[i].toLowerCase().startsWith(prefix)) {
+                    return mMinValue + i;
+                }
+            }
+        }
+        int value = 0;
+        int digits = 0;
+        boolean negative = false;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            final int digit = Character.digit(c, 10);
+            if (digit >= 0) {
+                value = value * 10 + digit;
+                digits++;
+            } else if (c == '-' && digits == 0) {
+                negative = true;
+            }
+        }
+        return digits == 0 ? Integer.MIN_VALUE : negative ? -value : value;
+    }
+}
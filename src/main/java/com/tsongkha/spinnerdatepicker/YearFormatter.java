@@ -0,0 +1,194 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.widget.NumberPicker;
+
+import java.text.DateFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Formats the year spinner with the digits of the default locale, so that drawing a year
+ * never creates temporary objects once it has been seen.
+ *
+ * Ranges of up to {@link DigitTables#MAX_YEAR_TABLE_SIZE} years are formatted from a shared
+ * table built for the range. Wider ranges, such as year 1 to 9999, only keep the labels of a
+ * small window of recently drawn years, so memory stays the same whatever the size of the
+ * range. Years before 1 AD use astronomical numbering, so 0 is 1 BC, and are labelled with
+ * the locale's era name. Other calendar systems label years through
+ * {@link CalendarSystem#formatYear(int, String, java.util.Locale)}.
+ *
+ * {@link NumberPicker} does not accept negative values, so a range reaching below year 0 is
+ * shifted into positive spinner values. Convert with {@link #toValue(int)} and
+ * {@link #toYear(int)}, and read typed years with {@link #parseValue(CharSequence)}.
+ */
+class YearFormatter implements NumberPicker.Formatter, DateSpinner.InputParser {
+
+    /**
+     * The number of labels kept for ranges too wide for a table, a power of two
+     * comfortably above the number of items a spinner shows at once.
+     */
+    private static final int WINDOW_SIZE = 16;
+
+    /**
+     * Added to the years of a range reaching below year 0 to get spinner values. Any year a
+     * packed date can hold stays positive.
+     */
+    private static final int NEGATIVE_YEARS_OFFSET = 1 << 22;
+
+    private Locale mDefaultLocale;
+
+    private Locale mLocale;
+
+    private CalendarSystem mCalendar = CalendarSystem.GREGORIAN;
+
+    private char mZeroDigit;
+
+    private String mBeforeEraName;
+
+    private int mMinYear;
+
+    private int mMaxYear;
+
+    private int mYearOffset;
+
+    private DigitTables.YearTable mTable;
+
+    private final int[] mWindowYears = new int[WINDOW_SIZE];
+
+    private final String[] mWindowLabels = new String[WINDOW_SIZE];
+
+    YearFormatter(int minYear, int maxYear) {
+        mMinYear = minYear;
+        mMaxYear = maxYear;
+        mYearOffset = minYear < 0 ? NEGATIVE_YEARS_OFFSET : 0;
+        mDefaultLocale = Locale.getDefault();
+        init(mDefaultLocale);
+    }
+
+    /**
+     * Formats with the digits and era name of a locale until the default locale changes.
+     */
+    void setLocale(Locale locale) {
+        mDefaultLocale = Locale.getDefault();
+        init(locale);
+    }
+
+    /**
+     * Labels the years of a calendar system.
+     */
+    void setCalendarSystem(CalendarSystem calendar) {
+        if (calendar != mCalendar) {
+            mCalendar = calendar;
+            init(mLocale);
+        }
+    }
+
+    private void init(Locale locale) {
+        mLocale = locale;
+        mZeroDigit = DigitTables.zeroDigit(locale);
+        mBeforeEraName = DateFormatSymbols.getInstance(locale).getEras()[0];
+        mTable = usesTable(mMinYear, mMaxYear)
+                ? DigitTables.years(mZeroDigit, mMinYear, mMaxYear) : null;
+        clearWindow();
+    }
+
+    /**
+     * Sets the range of years shown by the spinner.
+     */
+    void setRange(int minYear, int maxYear) {
+        if (minYear == mMinYear && maxYear == mMaxYear) {
+            return;
+        }
+        mMinYear = minYear;
+        mMaxYear = maxYear;
+        mYearOffset = minYear < 0 ? NEGATIVE_YEARS_OFFSET : 0;
+        if (!usesTable(minYear, maxYear)) {
+            mTable = null;
+        } else if (mTable == null || !mTable.covers(minYear, maxYear)) {
+            mTable = DigitTables.years(mZeroDigit, minYear, maxYear);
+        }
+    }
+
+    /**
+     * The spinner value of a year in the current range.
+     */
+    int toValue(int year) {
+        return year + mYearOffset;
+    }
+
+    /**
+     * The year of a spinner value in the current range.
+     */
+    int toYear(int value) {
+        return value - mYearOffset;
+    }
+
+    /**
+     * Reads the digits of a typed year, in any script, as the year they label. Years before
+     * 1 AD are typed as labelled, so "44" is 44 BC when 44 AD is out of the range. A year out
+     * of the range is moved into it.
+     */
+    @Override
+    public int parseValue(CharSequence text) {
+        int number = 0;
+        int digits = 0;
+        for (int i = 0, length = text.length(); i < length && digits < 9; i++) {
+            final int digit = Character.digit(text.charAt(i), 10);
+            if (digit >= 0) {
+                number = number * 10 + digit;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return NO_VALUE;
+        }
+        int year = number;
+        if (mCalendar == CalendarSystem.GREGORIAN && year > mMaxYear && 1 - number >= mMinYear) {
+            year = 1 - number;
+        }
+        return toValue(Math.max(mMinYear, Math.min(mMaxYear, year)));
+    }
+
+    @Override
+    public String format(int value) {
+        final Locale currentLocale = Locale.getDefault();
+        if (currentLocale != mDefaultLocale) {
+            mDefaultLocale = currentLocale;
+            init(currentLocale);
+        }
+        final int year = toYear(value);
+        if (mTable != null) {
+            int index = year - mTable.minYear;
+            if (index >= 0 && index < mTable.years.length) {
+                return mTable.years[index];
+            }
+        }
+        // consecutive years never share a slot, so the visible ones stay cached while scrolling
+        final int slot = year & (WINDOW_SIZE - 1);
+        if (mWindowYears[slot] != year || mWindowLabels[slot] == null) {
+            mWindowYears[slot] = year;
+            mWindowLabels[slot] = formatUncached(year);
+        }
+        return mWindowLabels[slot];
+    }
+
+    private String formatUncached(int year) {
+        if (mCalendar != CalendarSystem.GREGORIAN) {
+            return mCalendar.formatYear(year,
+                    DigitTables.format(mZeroDigit, mCalendar.getYearOfEra(year), 1), mLocale);
+        }
+        if (year > 0) {
+            return DigitTables.format(mZeroDigit, year, 1);
+        }
+        return DigitTables.format(mZeroDigit, 1 - year, 1) + " " + mBeforeEraName;
+    }
+
+    private void clearWindow() {
+        Arrays.fill(mWindowLabels, null);
+    }
+
+    private boolean usesTable(int minYear, int maxYear) {
+        return mCalendar.labelsYearsWithDigits()
+                && minYear > 0 && maxYear - minYear < DigitTables.MAX_YEAR_TABLE_SIZE;
+    }
+}
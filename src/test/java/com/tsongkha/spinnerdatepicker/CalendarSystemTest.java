@@ -0,0 +1,143 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class CalendarSystemTest {
+
+    private static final CalendarSystem[] CALENDARS = {
+            CalendarSystem.GREGORIAN, CalendarSystem.BUDDHIST, CalendarSystem.JAPANESE,
+            CalendarSystem.SOLAR_HIJRI
+    };
+
+    /**
+     * From 1600 to 2400, around either end of which the tables and the leap cycles would go
+     * wrong first.
+     */
+    private static final int FIRST_EPOCH_DAY = (int) LocalDate.of(1600, 1, 1).toEpochDay();
+
+    private static final int LAST_EPOCH_DAY = (int) LocalDate.of(2400, 12, 31).toEpochDay();
+
+    @Test
+    public void gregorianMatchesJavaTime() {
+        for (int day = FIRST_EPOCH_DAY; day <= LAST_EPOCH_DAY; day++) {
+            final LocalDate date = LocalDate.ofEpochDay(day);
+            final int packed = Dates.of(date.getYear(), date.getMonthValue() - 1,
+                    date.getDayOfMonth());
+            assertEquals(packed, CalendarSystem.GREGORIAN.fromEpochDay(day));
+            assertEquals(day, CalendarSystem.GREGORIAN.toEpochDay(packed));
+        }
+    }
+
+    @Test
+    public void roundTripsEveryDay() {
+        for (CalendarSystem calendar : CALENDARS) {
+            for (int day = FIRST_EPOCH_DAY; day <= LAST_EPOCH_DAY; day++) {
+                final int date = calendar.fromEpochDay(day);
+                assertEquals(day, calendar.toEpochDay(date));
+                assertEquals(date, calendar.fromGregorian(calendar.toGregorian(date)));
+            }
+        }
+    }
+
+    @Test
+    public void consecutiveDaysFollowMonthLengths() {
+        for (CalendarSystem calendar : CALENDARS) {
+            int previous = calendar.fromEpochDay(FIRST_EPOCH_DAY);
+            for (int day = FIRST_EPOCH_DAY + 1; day <= LAST_EPOCH_DAY; day++) {
+                final int date = calendar.fromEpochDay(day);
+                final int year = Dates.year(previous);
+                final int month = Dates.month(previous);
+                final int expected;
+                if (Dates.day(previous) < calendar.getDaysInMonth(year, month)) {
+                    expected = Dates.of(year, month, Dates.day(previous) + 1);
+                } else if (month < calendar.getMonthsInYear(year) - 1) {
+                    expected = Dates.of(year, month + 1, 1);
+                } else {
+                    expected = Dates.of(year + 1, 0, 1);
+                }
+                assertEquals(expected, date);
+                assertEquals(date, calendar.plusDays(previous, 1));
+                previous = date;
+            }
+        }
+    }
+
+    @Test
+    public void solarHijriNewYears() {
+        assertNowruz(1399, 2020, 3, 20);
+        assertNowruz(1400, 2021, 3, 21);
+        assertNowruz(1403, 2024, 3, 20);
+        assertNowruz(1404, 2025, 3, 21);
+    }
+
+    @Test
+    public void solarHijriLeapYearsFollow33YearCycle() {
+        final CalendarSystem calendar = CalendarSystem.SOLAR_HIJRI;
+        assertEquals(30, calendar.getDaysInMonth(1399, 11));
+        assertEquals(29, calendar.getDaysInMonth(1400, 11));
+        assertEquals(30, calendar.getDaysInMonth(1403, 11));
+        for (int first = 1300; first < 1500; first++) {
+            int leapYears = 0;
+            for (int year = first; year < first + 33; year++) {
+                final int length = calendar.toEpochDay(year + 1, 0, 1)
+                        - calendar.toEpochDay(year, 0, 1);
+                final boolean isLeap = calendar.getDaysInMonth(year, 11) == 30;
+                assertEquals(isLeap ? 366 : 365, length);
+                if (isLeap) {
+                    leapYears++;
+                }
+            }
+            assertEquals(8, leapYears);
+        }
+    }
+
+    @Test
+    public void solarHijriPinsLeapDayToShorterYear() {
+        final CalendarSystem calendar = CalendarSystem.SOLAR_HIJRI;
+        assertEquals(Dates.of(1400, 11, 29), calendar.withYear(Dates.of(1399, 11, 30), 1400));
+        assertEquals(Dates.of(1400, 11, 29), calendar.plusMonths(Dates.of(1400, 5, 31), 6));
+        assertEquals(Dates.of(1401, 0, 1), calendar.stepDay(Dates.of(1400, 11, 29), 29, 1));
+    }
+
+    @Test
+    public void japaneseErasStartInTheirFirstYear() {
+        final CalendarSystem calendar = CalendarSystem.JAPANESE;
+        assertEquals(1867, calendar.getYearOfEra(1867));
+        assertEquals(1, calendar.getYearOfEra(1868));
+        assertEquals(44, calendar.getYearOfEra(1911));
+        assertEquals(1, calendar.getYearOfEra(1912));
+        assertEquals(1, calendar.getYearOfEra(1926));
+        assertEquals(63, calendar.getYearOfEra(1988));
+        assertEquals(1, calendar.getYearOfEra(1989));
+        assertEquals(30, calendar.getYearOfEra(2018));
+        assertEquals(1, calendar.getYearOfEra(2019));
+    }
+
+    @Test
+    public void japaneseLabelsYearsWithEra() {
+        final CalendarSystem calendar = CalendarSystem.JAPANESE;
+        assertEquals("Reiwa 1", calendar.formatYear(2019, "1", Locale.ENGLISH));
+        assertEquals("\u5e73\u621030", calendar.formatYear(2018, "30", Locale.JAPANESE));
+        assertEquals("1867", calendar.formatYear(1867, "1867", Locale.ENGLISH));
+    }
+
+    @Test
+    public void buddhistShiftsYears() {
+        final CalendarSystem calendar = CalendarSystem.BUDDHIST;
+        assertEquals(Dates.of(2563, 1, 29), calendar.fromGregorian(Dates.of(2020, 1, 29)));
+        assertEquals(29, calendar.getDaysInMonth(2563, 1));
+        assertEquals(28, calendar.getDaysInMonth(2564, 1));
+        assertEquals(Dates.of(2564, 0, 1), calendar.stepDay(Dates.of(2563, 11, 31), 31, 1));
+    }
+
+    private static void assertNowruz(int year, int gregorianYear, int gregorianMonth,
+                                     int gregorianDay) {
+        assertEquals(LocalDate.of(gregorianYear, gregorianMonth, gregorianDay).toEpochDay(),
+                CalendarSystem.SOLAR_HIJRI.toEpochDay(year, 0, 1));
+    }
+}
@@ -0,0 +1,127 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateEntryParserTest {
+
+    private static final char[] DAY_MONTH_YEAR = {'d', 'M', 'y'};
+
+    private static final char[] MONTH_DAY_YEAR = {'M', 'd', 'y'};
+
+    private static final String[] MONTH_NAMES = {
+            "January", "February", "March", "April", "May", "June", "July", "August",
+            "September", "October", "November", "December"
+    };
+
+    private DateEntryParser mParser;
+
+    @Before
+    public void setUp() {
+        mParser = new DateEntryParser();
+        mParser.setFields(DAY_MONTH_YEAR, true, true);
+        mParser.setMonthNames(MONTH_NAMES);
+        mParser.setPivotYear(2020);
+    }
+
+    @Test
+    public void parsesSeparatedDigits() {
+        assertDate("15/03/2024", 2024, 2, 15);
+        assertDate("1.3.2024", 2024, 2, 1);
+    }
+
+    @Test
+    public void endsFieldsAtTheirWidth() {
+        assertDate("15032024", 2024, 2, 15);
+    }
+
+    @Test
+    public void followsFieldOrder() {
+        mParser.setFields(MONTH_DAY_YEAR, true, true);
+        assertDate("03/15/2024", 2024, 2, 15);
+    }
+
+    @Test
+    public void skipsHiddenFields() {
+        mParser.setFields(DAY_MONTH_YEAR, true, false);
+        assertEquals(DateEntryParser.COMPLETE, mParser.parse("15/03", false));
+        assertEquals(2, mParser.getMonth());
+        assertEquals(15, mParser.getDayOfMonth());
+
+        mParser.setFields(DAY_MONTH_YEAR, false, true);
+        assertDate("03/2024", 2024, 2, 1);
+    }
+
+    @Test
+    public void readsDigitsOfAnyScript() {
+        // Arabic-Indic digits
+        assertDate("\u0661\u0665/\u0660\u0663/\u0662\u0660\u0662\u0664", 2024, 2, 15);
+        // Devanagari digits
+        assertDate("\u0967\u096b \u0966\u0969 \u0968\u0966\u0968\u096a", 2024, 2, 15);
+    }
+
+    @Test
+    public void matchesMonthNamePrefixes() {
+        assertDate("15 mar 2024", 2024, 2, 15);
+        assertDate("15 MARCH 2024", 2024, 2, 15);
+        assertDate("15 f 2024", 2024, 1, 15);
+        assertDate("15 jul 2024", 2024, 6, 15);
+        assertDate("15 may 2024", 2024, 4, 15);
+    }
+
+    @Test
+    public void rejectsAmbiguousMonthPrefix() {
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15 ma 2024", true));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15 ju 2024", true));
+    }
+
+    @Test
+    public void ignoresSeparatorsInMonthNames() {
+        mParser.setMonthNames(new String[]{
+                "janv.", "f\u00e9vr.", "mars", "avr.", "mai", "juin", "juil.", "ao\u00fbt",
+                "sept.", "oct.", "nov.", "d\u00e9c."
+        });
+        assertDate("15 janv 2024", 2024, 0, 15);
+        assertDate("15 f\u00e9 2024", 2024, 1, 15);
+        assertDate("15 juil. 2024", 2024, 6, 15);
+    }
+
+    @Test
+    public void expandsTwoDigitYearsAroundPivot() {
+        assertDate("15/03/24", 2024, 2, 15);
+        assertDate("15/03/70", 2070, 2, 15);
+        assertDate("15/03/71", 1971, 2, 15);
+        assertDate("15/03/99", 1999, 2, 15);
+
+        mParser.setPivotYear(1985);
+        assertDate("15/03/24", 2024, 2, 15);
+        assertDate("15/03/36", 1936, 2, 15);
+    }
+
+    @Test
+    public void staysOpenUntilLastFieldCannotTakeMore() {
+        assertEquals(DateEntryParser.PARSING, mParser.parse("15/03", false));
+        assertEquals(DateEntryParser.PARSING, mParser.parse("15/03/202", false));
+        assertEquals(DateEntryParser.COMPLETE, mParser.parse("15/03/2024", false));
+        assertEquals(DateEntryParser.COMPLETE, mParser.parse("15/03/202", true));
+    }
+
+    @Test
+    public void rejectsMalformedText() {
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15/00/2024", true));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("00/03/2024", true));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("x5/03/2024", false));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15 m4 2024", false));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15/03/20245", false));
+        assertEquals(DateEntryParser.INVALID, mParser.parse("15 xyz 2024", false));
+    }
+
+    private void assertDate(String text, int year, int month, int dayOfMonth) {
+        assertEquals(text, DateEntryParser.COMPLETE, mParser.parse(text, true));
+        assertEquals(text, year, mParser.getYear());
+        assertEquals(text, month, mParser.getMonth());
+        assertEquals(text, dayOfMonth, mParser.getDayOfMonth());
+    }
+}
@@ -0,0 +1,201 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DateSelectionModelTest {
+
+    private static final int MIN_DATE = Dates.of(2020, 0, 1);
+
+    private static final int MAX_DATE = Dates.of(2020, 11, 31);
+
+    private DateSelectionModel mModel;
+
+    @Before
+    public void setUp() {
+        mModel = new DateSelectionModel(MIN_DATE);
+        mModel.setDateRange(MIN_DATE, MAX_DATE);
+        mModel.init(2020, 5, 15, true, true);
+        mModel.takeDirty();
+    }
+
+    @Test
+    public void clampsToMinAndMax() {
+        mModel.updateDate(2019, 5, 15);
+        assertEquals(MIN_DATE, mModel.getDate());
+
+        mModel.updateDate(2021, 5, 15);
+        assertEquals(MAX_DATE, mModel.getDate());
+    }
+
+    @Test
+    public void rollsOverOutOfRangeDays() {
+        mModel.updateDate(2020, 1, 30);
+        assertEquals(Dates.of(2020, 2, 1), mModel.getDate());
+    }
+
+    @Test
+    public void setMaxDateKeepsEarlierDate() {
+        // the picker used to move the date to a later max, as if the date were after it
+        mModel.setMaxDate(Dates.of(2021, 5, 30));
+        assertEquals(Dates.of(2020, 5, 15), mModel.getDate());
+
+        mModel.setMaxDate(Dates.of(2020, 2, 31));
+        assertEquals(Dates.of(2020, 2, 31), mModel.getDate());
+    }
+
+    @Test
+    public void setMinDateKeepsLaterDate() {
+        mModel.setMinDate(Dates.of(2019, 0, 1));
+        assertEquals(Dates.of(2020, 5, 15), mModel.getDate());
+
+        mModel.setMinDate(Dates.of(2020, 8, 1));
+        assertEquals(Dates.of(2020, 8, 1), mModel.getDate());
+    }
+
+    @Test
+    public void dayWrapsIntoNeighbouringMonths() {
+        mModel.updateDate(2020, 0, 31);
+        mModel.stepDay(31, 1);
+        assertEquals(Dates.of(2020, 1, 1), mModel.getDate());
+
+        mModel.stepDay(1, 29);
+        assertEquals(Dates.of(2020, 0, 31), mModel.getDate());
+    }
+
+    @Test
+    public void monthWrapsIntoNeighbouringYears() {
+        mModel.setMaxDate(Dates.of(2021, 11, 31));
+        mModel.updateDate(2020, 11, 31);
+        mModel.stepMonth(11, 0);
+        assertEquals(Dates.of(2021, 0, 31), mModel.getDate());
+
+        mModel.stepMonth(0, 11);
+        assertEquals(Dates.of(2020, 11, 31), mModel.getDate());
+    }
+
+    @Test
+    public void monthStepPinsDayToMonthLength() {
+        mModel.updateDate(2020, 0, 31);
+        mModel.stepMonth(0, 1);
+        assertEquals(Dates.of(2020, 1, 29), mModel.getDate());
+    }
+
+    @Test
+    public void wrapStopsAtRange() {
+        mModel.updateDate(2020, 11, 31);
+        mModel.stepDay(31, 1);
+        assertEquals(MAX_DATE, mModel.getDate());
+    }
+
+    @Test
+    public void narrowsSpinnersOnBoundaryDates() {
+        mModel.setMinDate(Dates.of(2020, 2, 10));
+        mModel.updateDate(2020, 2, 10);
+        assertEquals(10, mModel.getDaySpinnerMin());
+        assertEquals(31, mModel.getDaySpinnerMax());
+        assertEquals(2, mModel.getMonthSpinnerMin());
+        assertFalse(mModel.isDaySpinnerWrapped());
+
+        mModel.updateDate(2020, 11, 31);
+        assertEquals(1, mModel.getDaySpinnerMin());
+        assertEquals(31, mModel.getDaySpinnerMax());
+        assertEquals(11, mModel.getMonthSpinnerMax());
+        assertFalse(mModel.isMonthSpinnerWrapped());
+
+        mModel.updateDate(2020, 5, 15);
+        assertEquals(1, mModel.getDaySpinnerMin());
+        assertEquals(30, mModel.getDaySpinnerMax());
+        assertTrue(mModel.isDaySpinnerWrapped());
+        assertTrue(mModel.isMonthSpinnerWrapped());
+        assertEquals(2020, mModel.getYearSpinnerMin());
+        assertEquals(2020, mModel.getYearSpinnerMax());
+    }
+
+    @Test
+    public void yearlessModeLivesInKnownLeapYear() {
+        mModel.init(1, 29, true, false);
+        assertEquals(DateSelectionModel.KNOWN_LEAP_YEAR, mModel.getYear());
+        assertEquals(1, mModel.getMonth());
+        assertEquals(29, mModel.getDayOfMonth());
+        assertEquals(29, mModel.getDaySpinnerMax());
+    }
+
+    @Test
+    public void yearlessModeWrapsWithinYear() {
+        mModel.init(11, 31, true, false);
+        mModel.stepDay(31, 1);
+        assertEquals(Dates.of(DateSelectionModel.KNOWN_LEAP_YEAR, 0, 1), mModel.getDate());
+
+        mModel.stepMonth(0, 11);
+        assertEquals(Dates.of(DateSelectionModel.KNOWN_LEAP_YEAR, 11, 1), mModel.getDate());
+    }
+
+    @Test
+    public void yearlessModeIgnoresRange() {
+        mModel.init(6, 4, true, false);
+        assertTrue(mModel.updateDate(0, 1));
+        assertEquals(Dates.of(DateSelectionModel.KNOWN_LEAP_YEAR, 0, 1), mModel.getDate());
+        assertFalse(mModel.updateDate(0, 1));
+    }
+
+    @Test
+    public void marksOnlyChangedFieldsDirty() {
+        assertTrue(mModel.updateDate(2020, 5, 16));
+        assertEquals(DateSelectionModel.DIRTY_DATE | DateSelectionModel.DIRTY_DAY_VALUE,
+                mModel.takeDirty());
+        assertEquals(0, mModel.takeDirty());
+
+        assertTrue(mModel.updateDate(2020, 6, 16));
+        assertEquals(DateSelectionModel.DIRTY_DATE | DateSelectionModel.DIRTY_MONTH_VALUE
+                | DateSelectionModel.DIRTY_DAY_RANGE, mModel.takeDirty());
+
+        assertFalse(mModel.updateDate(2020, 6, 16));
+        assertEquals(0, mModel.takeDirty());
+    }
+
+    @Test
+    public void marksRangeOfShownSpinnerDirty() {
+        mModel.setFieldsShown(false, true);
+        assertEquals(DateSelectionModel.DIRTY_VISIBILITY, mModel.takeDirty());
+
+        mModel.setFieldsShown(true, true);
+        final int dirty = mModel.takeDirty();
+        assertEquals(DateSelectionModel.DIRTY_VISIBILITY | DateSelectionModel.DIRTY_DAY_RANGE,
+                dirty & (DateSelectionModel.DIRTY_VISIBILITY
+                        | DateSelectionModel.DIRTY_DAY_RANGE));
+    }
+
+    @Test
+    public void invalidateMarksEverythingDirty() {
+        mModel.invalidate();
+        assertEquals(DateSelectionModel.DIRTY_ALL, mModel.takeDirty());
+    }
+
+    @Test
+    public void skipsDisabledDatesInDirectionOfStep() {
+        mModel.setDisabledDates(new DisabledDates().date(2020, 5, 16).date(2020, 5, 17));
+        mModel.stepDay(15, 16);
+        assertEquals(Dates.of(2020, 5, 18), mModel.getDate());
+
+        mModel.stepDay(18, 17);
+        assertEquals(Dates.of(2020, 5, 15), mModel.getDate());
+    }
+
+    @Test
+    public void movesOffDateThatBecomesDisabled() {
+        mModel.setDisabledDates(new DisabledDates().date(2020, 5, 15));
+        assertEquals(Dates.of(2020, 5, 16), mModel.getDate());
+    }
+
+    @Test
+    public void skipsBackwardsFromDisabledMax() {
+        mModel.setDisabledDates(new DisabledDates().date(2020, 11, 31));
+        mModel.updateDate(2021, 0, 1);
+        assertEquals(Dates.of(2020, 11, 30), mModel.getDate());
+    }
+}
@@ -0,0 +1,105 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.os.Looper;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowDialog;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Builds dialogs for thousands of short-lived Activities with a builder and pools that
+ * outlive them, as an app keeping them across rotations would, and checks that none of the
+ * destroyed Activities stays reachable.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DialogLeakTest {
+
+    private static final int ACTIVITIES = 2000;
+
+    private static final int GC_ATTEMPTS = 10;
+
+    /**
+     * Robolectric may still hold on to the Activity it set up last.
+     */
+    private static final int MAX_REACHABLE = 1;
+
+    @Test
+    public void destroyedActivitiesAreCollected() {
+        final SpinnerDatePickerDialogBuilder builder = new SpinnerDatePickerDialogBuilder();
+        final List<SpinnerDatePickerDialogPool> pools = new ArrayList<>();
+        final List<WeakReference<AppCompatActivity>> activities = new ArrayList<>();
+        for (int i = 0; i < ACTIVITIES; i++) {
+            final ActivityController<AppCompatActivity> controller =
+                    Robolectric.buildActivity(AppCompatActivity.class);
+            final AppCompatActivity activity = controller.get();
+            activity.setTheme(androidx.appcompat.R.style.Theme_AppCompat_Light);
+            controller.setup();
+
+            final SpinnerDatePickerDialogPool pool = new SpinnerDatePickerDialogPool(activity);
+            pools.add(pool);
+            builder.context(activity)
+                    .pool(pool)
+                    .callback(new SpinnerDatePickerDialog.OnDateSetListener() {
+                        @Override
+                        public void onDateSet(SpinnerDatePicker view, int year, int monthOfYear,
+                                              int dayOfMonth) {
+                            activity.finish();
+                        }
+
+                        @Override
+                        public void onDateSet(SpinnerDatePicker view, int monthOfYear,
+                                              int dayOfMonth) {
+                            activity.finish();
+                        }
+                    })
+                    .onCancel(view -> activity.finish())
+                    .validator((year, monthOfYear, dayOfMonth) -> !activity.isFinishing(),
+                            Runnable::run);
+            // the first dialog goes back to the pool, the second is still showing
+            final SpinnerDatePickerDialog dialog = builder.build();
+            dialog.show();
+            dialog.dismiss();
+            builder.build().show();
+
+            controller.pause().stop().destroy();
+            shadowOf(Looper.getMainLooper()).idle();
+            // Robolectric keeps every dialog shown until the end of the test otherwise
+            ShadowDialog.reset();
+            activities.add(new WeakReference<>(activity));
+        }
+
+        int reachable = countReachable(activities);
+        for (int i = 0; i < GC_ATTEMPTS && reachable > MAX_REACHABLE; i++) {
+            Runtime.getRuntime().gc();
+            System.runFinalization();
+            reachable = countReachable(activities);
+        }
+        assertTrue(reachable + " of " + ACTIVITIES + " destroyed activities are reachable",
+                reachable <= MAX_REACHABLE);
+        // the pools are still in use here
+        assertEquals(ACTIVITIES, pools.size());
+    }
+
+    private static int countReachable(List<WeakReference<AppCompatActivity>> activities) {
+        int reachable = 0;
+        for (WeakReference<AppCompatActivity> activity : activities) {
+            if (activity.get() != null) {
+                reachable++;
+            }
+        }
+        return reachable;
+    }
+}
@@ -0,0 +1,190 @@
+package com.tsongkha.spinnerdatepicker;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks the compiled index against a day by day evaluation of the same rules with
+ * {@link LocalDate}.
+ */
+public class DisabledDatesTest {
+
+    private static final int SEED = 42;
+
+    @Test
+    public void indexMatchesBruteForce() {
+        final Random random = new Random(SEED);
+        for (int round = 0; round < 50; round++) {
+            final Rules rules = Rules.random(random);
+            final LocalDate min = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(3000));
+            final LocalDate max = min.plusDays(random.nextInt(400));
+            final DisabledDateIndex index = rules.dates.index(pack(min), pack(max));
+
+            for (LocalDate day = min; !day.isAfter(max); day = day.plusDays(1)) {
+                assertEquals(day.toString(), rules.isDisabled(day), index.isDisabled(pack(day)));
+                assertEquals(day.toString(), rules.nextEnabled(day, max),
+                        index.nextEnabled(pack(day)));
+                assertEquals(day.toString(), rules.previousEnabled(day, min),
+                        index.previousEnabled(pack(day)));
+            }
+            assertEquals(rules.nextEnabled(min, max) != DisabledDateIndex.NO_DATE,
+                    index.hasEnabledDate(pack(min), pack(max)));
+        }
+    }
+
+    @Test
+    public void rangesAcrossWordBoundaries() {
+        final LocalDate min = LocalDate.of(2020, 1, 1);
+        for (int from = 0; from < 140; from += 7) {
+            for (int length = 0; length < 140; length += 9) {
+                final LocalDate first = min.plusDays(from);
+                final LocalDate last = first.plusDays(length);
+                final DisabledDateIndex index = new DisabledDates()
+                        .range(first.getYear(), first.getMonthValue() - 1, first.getDayOfMonth(),
+                                last.getYear(), last.getMonthValue() - 1, last.getDayOfMonth())
+                        .index(pack(min), pack(min.plusDays(199)));
+                for (int i = 0; i < 200; i++) {
+                    final LocalDate day = min.plusDays(i);
+                    assertEquals(day.toString(), i >= from && i <= from + length,
+                            index.isDisabled(pack(day)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findsNoEnabledDateWhenAllAreDisabled() {
+        final int min = Dates.of(2020, 0, 1);
+        final int max = Dates.of(2020, 11, 31);
+        final DisabledDateIndex index = new DisabledDates().range(2019, 0, 1, 2021, 0, 1)
+                .index(min, max);
+        assertEquals(DisabledDateIndex.NO_DATE, index.nextEnabled(min));
+        assertEquals(DisabledDateIndex.NO_DATE, index.previousEnabled(max));
+        assertFalse(index.hasEnabledDate(min, max));
+    }
+
+    @Test
+    public void reusesIndexWhileItCoversRange() {
+        final DisabledDates disabledDates = new DisabledDates().yearly(11, 25);
+        final DisabledDateIndex index = disabledDates.index(Dates.of(2020, 0, 1),
+                Dates.of(2020, 11, 31));
+        assertSame(index, disabledDates.index(Dates.of(2020, 2, 1), Dates.of(2020, 5, 30)));
+        assertNotSame(index, disabledDates.index(Dates.of(2019, 0, 1), Dates.of(2020, 11, 31)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsRulesOnceFrozen() {
+        final DisabledDates disabledDates = new DisabledDates().monthly(1);
+        disabledDates.freeze();
+        disabledDates.monthly(15);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedRange() {
+        new DisabledDates().range(2020, 5, 1, 2020, 4, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidDayOfWeek() {
+        new DisabledDates().daysOfWeek(Calendar.SATURDAY + 1);
+    }
+
+    private static int pack(LocalDate date) {
+        return Dates.of(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+    }
+
+    /**
+     * The same rules as a DisabledDates, evaluated one day at a time.
+     */
+    private static final class Rules {
+
+        final DisabledDates dates = new DisabledDates();
+
+        final Set<LocalDate> disabled = new HashSet<>();
+
+        final LocalDate[] rangeStarts = new LocalDate[2];
+
+        final LocalDate[] rangeEnds = new LocalDate[2];
+
+        final Set<DayOfWeek> daysOfWeek = new HashSet<>();
+
+        int dayOfMonth;
+
+        int yearlyMonth;
+
+        int yearlyDay;
+
+        static Rules random(Random random) {
+            final Rules rules = new Rules();
+            for (int i = 0; i < 40; i++) {
+                final LocalDate date = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(3400));
+                rules.disabled.add(date);
+                rules.dates.date(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+            }
+            for (int i = 0; i < rules.rangeStarts.length; i++) {
+                final LocalDate from = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(3400));
+                final LocalDate to = from.plusDays(random.nextInt(100));
+                rules.rangeStarts[i] = from;
+                rules.rangeEnds[i] = to;
+                rules.dates.range(from.getYear(), from.getMonthValue() - 1, from.getDayOfMonth(),
+                        to.getYear(), to.getMonthValue() - 1, to.getDayOfMonth());
+            }
+            if (random.nextBoolean()) {
+                // Calendar counts from Sunday, DayOfWeek from Monday
+                final int dayOfWeek = Calendar.SUNDAY + random.nextInt(7);
+                rules.daysOfWeek.add(DayOfWeek.of(dayOfWeek == Calendar.SUNDAY ? 7
+                        : dayOfWeek - 1));
+                rules.dates.daysOfWeek(dayOfWeek);
+            }
+            rules.dayOfMonth = 1 + random.nextInt(31);
+            rules.dates.monthly(rules.dayOfMonth);
+            rules.yearlyMonth = random.nextInt(12);
+            rules.yearlyDay = 1 + random.nextInt(31);
+            rules.dates.yearly(rules.yearlyMonth, rules.yearlyDay);
+            return rules;
+        }
+
+        boolean isDisabled(LocalDate day) {
+            if (disabled.contains(day) || daysOfWeek.contains(day.getDayOfWeek())
+                    || day.getDayOfMonth() == dayOfMonth
+                    || day.getMonthValue() - 1 == yearlyMonth && day.getDayOfMonth() == yearlyDay) {
+                return true;
+            }
+            for (int i = 0; i < rangeStarts.length; i++) {
+                if (!day.isBefore(rangeStarts[i]) && !day.isAfter(rangeEnds[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int nextEnabled(LocalDate day, LocalDate max) {
+            for (; !day.isAfter(max); day = day.plusDays(1)) {
+                if (!isDisabled(day)) {
+                    return pack(day);
+                }
+            }
+            return DisabledDateIndex.NO_DATE;
+        }
+
+        int previousEnabled(LocalDate day, LocalDate min) {
+            for (; !day.isBefore(min); day = day.minusDays(1)) {
+                if (!isDisabled(day)) {
+                    return pack(day);
+                }
+            }
+            return DisabledDateIndex.NO_DATE;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.tsongkha.spinnerdatepicker;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.TextView;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.text.DateFormat;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class SpinnerDatePickerDialogTest {
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+    }
+
+    @Test
+    public void buildsRangeDialogWithDefaultTitle() {
+        SpinnerDatePickerDialog dialog = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .rangeCallback((view, startYear, startMonth, startDay, endYear, endMonth,
+                                endDay) -> {
+                })
+                .defaultDate(2020, 0, 10)
+                .span(3, 30)
+                .build();
+        dialog.show();
+
+        assertEquals(format(2020, 0, 10) + " \u2013 " + format(2020, 0, 13), title(dialog));
+    }
+
+    @Test
+    public void rebindsPooledDialogToRange() {
+        SpinnerDatePickerDialogPool pool = new SpinnerDatePickerDialogPool(mContext);
+        SpinnerDatePickerDialog single = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .pool(pool)
+                .defaultDate(2020, 0, 10)
+                .build();
+        single.show();
+        single.dismiss();
+
+        SpinnerDatePickerDialog range = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .pool(pool)
+                .rangeCallback((view, startYear, startMonth, startDay, endYear, endMonth,
+                                endDay) -> {
+                })
+                .defaultDate(2020, 5, 1)
+                .defaultEndDate(2020, 5, 7)
+                .build();
+        range.show();
+
+        assertSame(single, range);
+        assertEquals(format(2020, 5, 1) + " \u2013 " + format(2020, 5, 7), title(range));
+    }
+
+    @Test
+    public void titlesDefaultOutOfRangeWithClampedDate() {
+        SpinnerDatePickerDialog dialog = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .minDate(2020, 0, 1)
+                .maxDate(2020, 11, 31)
+                .defaultDate(2019, 5, 15)
+                .build();
+        dialog.show();
+
+        assertEquals(format(2020, 0, 1), title(dialog));
+    }
+
+    @Test
+    public void titlesDisabledDefaultWithNextEnabledDate() {
+        SpinnerDatePickerDialog dialog = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .disabledDates(new DisabledDates().date(2020, 0, 10))
+                .defaultDate(2020, 0, 10)
+                .build();
+        dialog.show();
+
+        assertEquals(format(2020, 0, 11), title(dialog));
+    }
+
+    @Test
+    public void buildsMonthYearDialogWithinOneMonth() {
+        SpinnerDatePickerDialog dialog = new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .monthYearMode(true)
+                .minDate(2020, 2, 5)
+                .maxDate(2020, 2, 20)
+                .defaultDate(2020, 2, 10)
+                .build();
+        dialog.show();
+
+        assertEquals(format(2020, 2, 1), title(dialog));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMonthYearMaxBeforeMin() {
+        new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .monthYearMode(true)
+                .minDate(2020, 2, 20)
+                .maxDate(2020, 2, 5)
+                .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSameMinAndMax() {
+        new SpinnerDatePickerDialogBuilder()
+                .context(mContext)
+                .minDate(2020, 2, 5)
+                .maxDate(2020, 2, 5)
+                .build();
+    }
+
+    private static String format(int year, int month, int dayOfMonth) {
+        return DateFormat.getDateInstance(DateFormat.LONG)
+                .format(new GregorianCalendar(year, month, dayOfMonth, 12, 0).getTime());
+    }
+
+    private static String title(SpinnerDatePickerDialog dialog) {
+        TextView title = dialog.findViewById(androidx.appcompat.R.id.alertTitle);
+        return title.getText().toString();
+    }
+}